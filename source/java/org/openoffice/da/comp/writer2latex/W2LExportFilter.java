@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-08-17)
+ *  Version 2.0 (2026-10-18)
  *
  */ 
  
@@ -38,7 +38,7 @@ import com.sun.star.xml.sax.XDocumentHandler;
 import org.openoffice.da.comp.writer2latex.base.UNOConverter;
 import org.openoffice.da.comp.writer2latex.util.MessageBox;
 
-import writer2latex.util.SimpleDOMBuilder;
+import writer2latex.util.CompactDOMBuilder;
 
 
 /** This class provides a UNO component which implements an XExportFilter.
@@ -61,7 +61,7 @@ XTypeProvider {
 	private static String DISPLAY_NAME = "Writer2LaTeX";
 
 	private XComponentContext xComponentContext = null;
-	private SimpleDOMBuilder domBuilder = new SimpleDOMBuilder(); 
+	private CompactDOMBuilder domBuilder = new CompactDOMBuilder(); 
 	private UNOConverter converter = null;
 
 	/** Construct a new W2LExportFilter from a given component context
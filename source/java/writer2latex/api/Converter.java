@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-07-28)
+ *  Version 2.0 (2026-10-18)
  *
  */
  
@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 /** This is an interface for a converter, which offers conversion of
  *  OpenDocument (or OpenOffice.org 1.x) documents into a specific format.
@@ -50,6 +51,17 @@ public interface Converter {
      *  @param gc the <code>GraphicConverter</code> to use
      */
     public void setGraphicConverter(GraphicConverter gc);
+    
+    /** Define an <code>Executor</code> to use for tasks that may be performed concurrently
+     *  during conversion, such as parsing the XML streams of a package document.
+     *  The result of the conversion does not depend on the executor.
+     *  If no executor is specified, all tasks are performed sequentially in the calling thread.
+     *  The default implementation ignores the executor, i.e. all tasks are performed sequentially.
+     *
+     *  @param executor the <code>Executor</code> to use, or null to perform all tasks sequentially
+     */
+    public default void setExecutor(Executor executor) {
+    }
 
     /** Convert a document
      *
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-03-10)
+ *  Version 2.0 (2026-10-18)
  *
  */
  
@@ -27,6 +27,8 @@ package writer2latex.api;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 
 /** A <code>ConverterResult</code> represent a document, which is the result
@@ -51,4 +53,33 @@ public interface ConverterResult {
      */
     public void write(File dir) throws IOException;
 
+    /** Write all files of the <code>ConverterResult</code> to a directory.
+     *  Subdirectories are created as required by the individual
+     *  <code>OutputFile</code>s. Optionally all files are forced to the
+     *  storage device when all files have been written.
+     *  The default implementation writes the files using <code>write(dir)</code>
+     *  and then forces each file to the storage device if requested.
+     *  @param dir the directory to write to (this directory must exist).
+               If the parameter is null, the default directory is used
+     *  @param bSync true if the files should be forced to the storage device before returning
+     *  @throws IOException if the directory does not exist or one or more files
+     *  		could not be written
+     */
+    public default void write(File dir, boolean bSync) throws IOException {
+        write(dir);
+        if (bSync) {
+            Iterator<OutputFile> files = iterator();
+            while (files.hasNext()) {
+                File file = new File(dir,files.next().getFileName());
+                FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+                try {
+                    channel.force(true);
+                }
+                finally {
+                    channel.close();
+                }
+            }
+        }
+    }
+
 }
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.6 (2015-05-05)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -27,6 +27,8 @@ package writer2latex.base;
 
 import java.io.OutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import writer2latex.api.OutputFile;
 
@@ -145,6 +147,22 @@ public class BinaryGraphicsDocument implements OutputFile {
     	}
     }
     
+    /** Writes out the content to the specified channel without copying the data.
+     *  Linked images will not write any data.
+     *
+     * @param  channel  <code>WritableByteChannel</code> to write out the  content.
+     *
+     * @throws  IOException  If any I/O error occurs.
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+    	if (blob!=null) {
+    		ByteBuffer buf = ByteBuffer.wrap(blob, nOff, nLen);
+    		while (buf.hasRemaining()) {
+    			channel.write(buf);
+    		}
+    	}
+    }
+    
     /** Get the document name or URL</p>
     *
     * @return  The document name or URL
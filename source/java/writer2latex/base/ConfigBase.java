@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-06-23)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -39,7 +39,6 @@ import java.util.Map;
 import java.util.Vector;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
@@ -50,6 +49,7 @@ import org.w3c.dom.DOMImplementation;
 import writer2latex.api.ComplexOption;
 import writer2latex.util.CSVList;
 import writer2latex.util.Misc;
+import writer2latex.util.XMLParserPool;
 
 /** This class is a base implementation of writer2latex.api.Config.
  *  It does not define any configurations, the subclasses must do this
@@ -286,9 +286,9 @@ public abstract class ConfigBase implements writer2latex.api.Config {
         DOMDocument doc = new DOMDocument("config",".xml");
         Document dom = null;
         try {
-            DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = builderFactory.newDocumentBuilder();
+            DocumentBuilder builder = XMLParserPool.acquireDocumentBuilder();
             DOMImplementation domImpl = builder.getDOMImplementation();
+            XMLParserPool.releaseDocumentBuilder(builder);
             dom = domImpl.createDocument("","config",null);
     	} catch (ParserConfigurationException e) {
     		// This will not happen
@@ -19,17 +19,17 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-07-14)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.base;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import org.w3c.dom.Element;
 import writer2latex.api.GraphicConverter;
@@ -51,6 +51,7 @@ public abstract class ConverterBase implements Converter {
 
     // Helper	
     protected GraphicConverter graphicConverter;
+    protected Executor executor;
 
     // The source document
     protected OfficeDocument odDoc;
@@ -65,6 +66,7 @@ public abstract class ConverterBase implements Converter {
     // Constructor
     public ConverterBase() {
         graphicConverter = null;
+        executor = null;
         converterResult = new ConverterResultImpl();
     }
 	
@@ -72,6 +74,10 @@ public abstract class ConverterBase implements Converter {
     public void setGraphicConverter(GraphicConverter graphicConverter) {
         this.graphicConverter = graphicConverter;
     }
+    
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
 	
     // Provide a do noting fallback method
     public void readTemplate(InputStream is) throws IOException { }
@@ -80,12 +86,25 @@ public abstract class ConverterBase implements Converter {
     public void readTemplate(File file) throws IOException { }
 
     public ConverterResult convert(File source, String sTargetFileName) throws FileNotFoundException,IOException {
-        return convert(new FileInputStream(source), sTargetFileName);
+        if (!source.isFile()) {
+        	throw new FileNotFoundException(source.getPath());
+        }
+        // Read document
+        odDoc = new OfficeDocument();
+        odDoc.setExecutor(executor);
+        odDoc.read(source);
+        try {
+        	return convert(sTargetFileName);
+        }
+        finally {
+        	odDoc.close();
+        }
     }
 
     public ConverterResult convert(InputStream is, String sTargetFileName) throws IOException {
         // Read document
         odDoc = new OfficeDocument();
+        odDoc.setExecutor(executor);
         odDoc.read(is);
         return convert(sTargetFileName);
     }
@@ -106,6 +125,7 @@ public abstract class ConverterBase implements Converter {
         // Prepare output
         this.sTargetFileName = sTargetFileName;
         converterResult.reset();
+        converterResult.setExecutor(executor);
         
         convertInner();
         
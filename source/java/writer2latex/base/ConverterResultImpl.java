@@ -19,18 +19,31 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-03-10)
+ *  Version 2.0 (2026-10-18)
  *
  */ 
 
 package writer2latex.base;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import writer2latex.api.ConverterResult;
 import writer2latex.api.OutputFile;
@@ -43,6 +56,8 @@ public class ConverterResultImpl implements ConverterResult {
 	
 	private int nMasterCount;
 	
+	private Executor executor = null;
+	
 	/** Construct a new <code>ConverterResultImpl</code> with empty content
 	 */
 	public ConverterResultImpl() {
@@ -53,9 +68,31 @@ public class ConverterResultImpl implements ConverterResult {
      *  objects from this class.  This allows reuse of a <code>ConvertResult</code> object.
      */
     public void reset() {
+        if (files!=null) {
+            // Release the resources of the files we discard (e.g. temporary files)
+            for (OutputFile file : files) {
+                if (file instanceof Closeable) {
+                    try {
+                        ((Closeable) file).close();
+                    }
+                    catch (IOException e) {
+                        // Nothing to do about it
+                    }
+                }
+            }
+        }
         files = new Vector<OutputFile>();
         nMasterCount = 0;
 	}
+    
+    /** Define an <code>Executor</code> to use for writing files concurrently.
+     *  If no executor is specified, the files are written sequentially in the calling thread.
+     * 
+     *  @param executor the <code>Executor</code> to use, or null to write the files sequentially
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
 
     /** Adds an <code>OutputFile</code> to the list
      *
@@ -86,7 +123,21 @@ public class ConverterResultImpl implements ConverterResult {
      *  @param dir the directory to use
      */
     public void write(File dir) throws IOException {
+        write(dir,false);
+    }
+
+    /** Write all files to a given directory. If an executor has been set, the files are written concurrently.
+     *  Otherwise the files are written sequentially in the calling thread.
+     * 
+     *  @param dir the directory to use
+     *  @param bSync true if the files should be forced to the storage device when all files have been written
+     */
+    public void write(File dir, boolean bSync) throws IOException {
         if (dir!=null && !dir.exists()) throw new IOException("Directory does not exist");
+        // Find the target file for each output file, and create the subdirectories
+        // Output files with the same target are written by the same task in the original order
+        Map<File,List<OutputFile>> targets = new LinkedHashMap<>();
+        Set<File> subdirs = new HashSet<>();
         Iterator<OutputFile> docEnum = iterator();
         while (docEnum.hasNext()) {
             OutputFile docOut = docEnum.next();
@@ -98,15 +149,125 @@ public class ConverterResultImpl implements ConverterResult {
                 sDirName = sFileName.substring(0,nSlash);
                 sFileName = sFileName.substring(nSlash+1);
                 subdir = new File(dir,sDirName);
-                if (!subdir.exists()) { subdir.mkdir(); }
+                if (subdirs.add(subdir) && !subdir.exists()) { subdir.mkdir(); }
             }
             File outfile = new File (subdir,sFileName);
-            FileOutputStream fos = new FileOutputStream(outfile);
-            docOut.write(fos);
-            fos.flush();
-            fos.close();
+            List<OutputFile> docs = targets.get(outfile);
+            if (docs==null) {
+                docs = new ArrayList<>();
+                targets.put(outfile, docs);
+            }
+            docs.add(docOut);
         }
 
+        // Write the files
+        List<FutureTask<Void>> tasks = new ArrayList<>();
+        for (Map.Entry<File,List<OutputFile>> entry : targets.entrySet()) {
+            tasks.add(writeTask(entry.getKey(),entry.getValue()));
+        }
+        run(tasks);
+
+        // Force the files to the storage device
+        if (bSync) {
+            tasks.clear();
+            for (File outfile : targets.keySet()) {
+                tasks.add(syncTask(outfile));
+            }
+            run(tasks);
+        }
+    }
+    
+    // Create a task to write output files to a target file
+    private FutureTask<Void> writeTask(final File outfile, final List<OutputFile> docs) {
+        return new FutureTask<Void>(new Callable<Void>() {
+            public Void call() throws IOException {
+                for (OutputFile docOut : docs) {
+                    FileOutputStream fos = new FileOutputStream(outfile);
+                    try {
+                        if (docOut instanceof BinaryGraphicsDocument) {
+                            // Write the image data directly to the file channel
+                            ((BinaryGraphicsDocument) docOut).write(fos.getChannel());
+                        }
+                        else {
+                            docOut.write(fos);
+                        }
+                        fos.flush();
+                    }
+                    finally {
+                        fos.close();
+                    }
+                }
+                return null;
+            }
+        });
+    }
+    
+    // Create a task to force a file to the storage device
+    private FutureTask<Void> syncTask(final File outfile) {
+        return new FutureTask<Void>(new Callable<Void>() {
+            public Void call() throws IOException {
+                FileChannel channel = FileChannel.open(outfile.toPath(), StandardOpenOption.WRITE);
+                try {
+                    channel.force(true);
+                }
+                finally {
+                    channel.close();
+                }
+                return null;
+            }
+        });
+    }
+    
+    // Run a list of tasks using the executor, or in the current thread if we don't have an executor
+    // or the executor rejects a task (e.g. because it has been shut down).
+    // All tasks are completed before returning, and the first exception (if any) is thrown.
+    private void run(List<FutureTask<Void>> tasks) throws IOException {
+        boolean bUseExecutor = executor!=null;
+        for (FutureTask<Void> task : tasks) {
+            if (bUseExecutor) {
+                try {
+                    executor.execute(task);
+                    continue;
+                }
+                catch (RejectedExecutionException e) {
+                    // Run this and the remaining tasks in the current thread
+                    bUseExecutor = false;
+                }
+            }
+            task.run();
+        }
+        Throwable exception = null;
+        boolean bInterrupted = false;
+        for (FutureTask<Void> task : tasks) {
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                }
+                catch (InterruptedException e) {
+                    // Keep waiting, the files must not be written after we return
+                    bInterrupted = true;
+                }
+                catch (ExecutionException e) {
+                    if (exception==null) { exception = e.getCause(); }
+                    break;
+                }
+            }
+        }
+        if (bInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (exception instanceof IOException) {
+            throw (IOException) exception;
+        }
+        else if (exception instanceof RuntimeException) {
+            throw (RuntimeException) exception;
+        }
+        else if (exception instanceof Error) {
+            throw (Error) exception;
+        }
+        else if (exception!=null) {
+            throw new IOException(exception);
+        }
     }
 }
-
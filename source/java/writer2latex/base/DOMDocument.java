@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-06-23)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -43,6 +43,7 @@ import org.xml.sax.SAXException;
 //import org.xml.sax.SAXParseException;
 
 import writer2latex.api.OutputFile;
+import writer2latex.util.XMLParserPool;
 
 /**
  *  This class represents XML-based documents. It is loosely based on a class from the former xmerge project
@@ -50,10 +51,6 @@ import writer2latex.api.OutputFile;
  */
 public class DOMDocument implements OutputFile {
 
-    /** Factory for <code>DocumentBuilder</code> objects. */
-    private static DocumentBuilderFactory factory =
-       DocumentBuilderFactory.newInstance();
-
     /** DOM <code>Document</code> of content.xml. */
     private Document contentDoc = null;
 
@@ -64,6 +61,9 @@ public class DOMDocument implements OutputFile {
     private String fileName = null;
     private String fileExt = null;
 
+    private boolean namespaceAware;
+    private boolean validating;
+
     /** Resources object. */
     //private Resources res = null;
 
@@ -103,8 +103,8 @@ public class DOMDocument implements OutputFile {
     public DOMDocument(String name, String ext,boolean namespaceAware, boolean validating) {
 
         //res = Resources.getInstance();
-        factory.setValidating(validating);
-        factory.setNamespaceAware(namespaceAware);
+        this.namespaceAware = namespaceAware;
+        this.validating = validating;
         this.fileExt = ext;
 	this.documentName = trimDocumentName(name);
         this.fileName = documentName + getFileExtension();
@@ -193,7 +193,7 @@ public class DOMDocument implements OutputFile {
     public void read(InputStream is) throws IOException {
         DocumentBuilder builder = null;
         try {
-            builder = factory.newDocumentBuilder();
+            builder = acquireDocumentBuilder();
         } catch (ParserConfigurationException ex) {  
             throw new IOException(ex.getMessage());
         }
@@ -201,6 +201,8 @@ public class DOMDocument implements OutputFile {
             contentDoc=  builder.parse(is);
         } catch (SAXException ex) {
             throw new IOException(ex.getMessage());
+        } finally {
+            releaseDocumentBuilder(builder);
         }
     }
     
@@ -333,8 +335,9 @@ public class DOMDocument implements OutputFile {
 
         try {
 
-            DocumentBuilder builder = factory.newDocumentBuilder();
+            DocumentBuilder builder = acquireDocumentBuilder();
             doc = builder.newDocument();
+            releaseDocumentBuilder(builder);
 
         } catch (ParserConfigurationException ex) {
         	// This will not happen
@@ -349,6 +352,23 @@ public class DOMDocument implements OutputFile {
         return doc;
     }
 
+    // Get a document builder, using the shared document builders if possible
+    private DocumentBuilder acquireDocumentBuilder() throws ParserConfigurationException {
+        if (namespaceAware && !validating) {
+            return XMLParserPool.acquireDocumentBuilder();
+        }
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setValidating(validating);
+        factory.setNamespaceAware(namespaceAware);
+        return factory.newDocumentBuilder();
+    }
+
+    private void releaseDocumentBuilder(DocumentBuilder builder) {
+        if (namespaceAware && !validating) {
+            XMLParserPool.releaseDocumentBuilder(builder);
+        }
+    }
+
     // We need these because we implement OutputFile
 	public String getMIMEType() {
 		return "";
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-04-09)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -30,7 +30,6 @@ import java.util.Enumeration;
 import java.util.List;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 
 import org.w3c.dom.Element;
 
@@ -40,6 +39,7 @@ import writer2latex.api.OutputFile;
 import writer2latex.latex.LaTeXConfig;
 import writer2latex.latex.i18n.ClassicI18n;
 import writer2latex.latex.i18n.I18n;
+import writer2latex.util.EncodingWriter;
 import writer2latex.util.ExportNameCollection;
 import writer2latex.office.BibMark;
 import writer2latex.office.BibMark.EntryType;
@@ -127,7 +127,7 @@ public class BibTeXDocument implements OutputFile {
 
     public void write(OutputStream os) throws IOException {
         // BibTeX files are plain ascii
-        OutputStreamWriter osw = new OutputStreamWriter(os,"ASCII");
+        EncodingWriter osw = new EncodingWriter(os,"ASCII");
         osw.write("%% This file was converted to BibTeX by Writer2LaTeX ver. "+ConverterFactory.getVersion()+".\n");
         osw.write("%% See http://writer2latex.sourceforge.net for more info.\n");
         osw.write("\n");
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-07-30)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -201,6 +201,11 @@ public class BlockConverter extends ConverterHelper {
                         palette.getFieldCv().handleSequenceDecls(child);
                     }
                     // other tags are ignored
+
+                    // Top level blocks are complete at this point, and may be written to the output
+                    if (ldp instanceof StreamedPortion && node==ofr.getContent()) {
+                        ((StreamedPortion) ldp).flush();
+                    }
                 }
             }
         }
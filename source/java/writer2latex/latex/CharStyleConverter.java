@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-04-27)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -30,6 +30,7 @@ import java.util.Map;
 import writer2latex.util.*;
 import writer2latex.office.*;
 import writer2latex.latex.util.BeforeAfter;
+import writer2latex.latex.util.BeforeAfterCache;
 import writer2latex.latex.util.Context;
 import writer2latex.latex.util.StyleMapItem;
 
@@ -51,6 +52,11 @@ public class CharStyleConverter extends StyleConverter {
     private boolean bUseUlem;
     // Do we need actually use ulem.sty?
     private boolean bNeedUlem = false;
+    // Cache for text formatting of styles
+    private BeforeAfterCache cache = new BeforeAfterCache();
+    private static final int DECL = 1;
+    private static final int INHERIT = 2;
+    private static final int EFFECTS = 4;
     
     /** <p>Constructs a new <code>CharStyleConverter</code>.</p>
      */
@@ -128,9 +134,7 @@ public class CharStyleConverter extends StyleConverter {
 
         // Convert automatic style  
         if (style.isAutomatic()) {
-            palette.getI18n().applyLanguage(style,false,true,ba);
-            applyFont(style,false,true,ba,context);
-            applyFontEffects(style,true,ba);
+            applyTextFormatting(style,false,true,true,ba,context);
             context.updateFormattingFromStyle(ofr.getTextStyle(sName));
             return;			
         }
@@ -155,6 +159,36 @@ public class CharStyleConverter extends StyleConverter {
         applyTextStyle(sName,ba,context);
     }
 	
+    /** Apply language and font and optionally font effects, taking the formatting attribute into account.
+     *  The result depends only on the style and the font formatting of the context, hence it is cached.
+     *  @param style the ODF style to read attributes from
+     *  @param bDecl true if declaration form is required
+     *  @param bInherit true if inherited properties should be used
+     *  @param bEffects true if font effects should be applied (only in command form)
+     *  @param ba the <code>BeforeAfter</code> to add LaTeX code to.
+     *  @param context the current context, the font formatting of which is updated
+     */
+    public void applyTextFormatting(StyleWithProperties style, boolean bDecl, boolean bInherit, boolean bEffects,
+    		BeforeAfter ba, Context context) {
+    	BeforeAfterCache.Key key = cache.createKey(style, (bDecl?DECL:0)|(bInherit?INHERIT:0)|(bEffects?EFFECTS:0), context);
+    	if (!cache.apply(key, ba, context)) {
+    		BeforeAfter baText = new BeforeAfter();
+    		palette.getI18n().applyLanguage(style,bDecl,bInherit,baText);
+    		applyFont(style,bDecl,bInherit,baText,context);
+    		if (bEffects) { applyFontEffects(style,bInherit,baText); }
+    		cache.put(key, baText, context);
+    		ba.add(baText);
+    	}
+    }
+    
+    /** Get the cache used for text formatting
+     * 
+     * @return the cache
+     */
+    public BeforeAfterCache getTextFormattingCache() {
+    	return cache;
+    }
+	
     public String getFontName(StyleWithProperties style) {
         if (style!=null) {
             String sName = style.getProperty(XMLString.STYLE_FONT_NAME);
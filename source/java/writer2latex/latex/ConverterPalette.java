@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-05-28)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -208,15 +208,44 @@ public final class ConverterPalette extends ConverterBase {
         // Create main LaTeXDocumentPortions
         LaTeXPacman packages = new LaTeXPacman(false);
         LaTeXDocumentPortion declarations = new LaTeXDocumentPortion(false);
-        LaTeXDocumentPortion body = new LaTeXDocumentPortion(true);
+        LaTeXDocumentPortion body;
+        StreamedPortion streamedBody = null;
+        if (config.streamBody()) {
+            // Completed blocks of the body are written to a temporary file during the conversion
+            streamedBody = texDoc.createStreamedPortion();
+            body = streamedBody;
+        }
+        else {
+            body = new LaTeXDocumentPortion(true);
+        }
         
         // Create additional data for the preamble
         globalOptions = new CSVList(',');
 
         // Traverse the content
         Element content = ofr.getContent();
-        blockCv.traverseBlockText(content,body,mainContext);
-        noteCv.insertEndnotes(body);
+        if (executor!=null && ofr.isSpreadsheet() && config.tableContent()==LaTeXConfig.ACCEPT) {
+            // The sheets can be prepared concurrently
+            tableCv.prepareTables(content,mainContext,executor);
+        }
+        boolean bTraversed = false;
+        try {
+            blockCv.traverseBlockText(content,body,mainContext);
+            noteCv.insertEndnotes(body);
+            info.addStatistics(body);
+            if (streamedBody!=null) {
+                streamedBody.close();
+            }
+            bTraversed = true;
+        }
+        finally {
+            // Tables which were prepared but not converted are not needed anymore
+            tableCv.discardPreparedTables();
+            if (!bTraversed) {
+                // The document will not be written, so the temporary file must be deleted now
+                texDoc.close();
+            }
+        }
         
         // Always use calc.sty
         packages.usepackage("calc");
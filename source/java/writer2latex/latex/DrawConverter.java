@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-09-23)
+ *  Version 2.0 (2026-10-18)
  *
  */
  
@@ -28,7 +28,6 @@ package writer2latex.latex;
 import java.util.LinkedList;
 import java.util.Stack;
 
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import writer2latex.base.BinaryGraphicsDocument;
 import writer2latex.latex.util.BeforeAfter;
@@ -140,20 +139,10 @@ public class DrawConverter extends ConverterHelper {
                 if (sHref.startsWith("./")) { sHref=sHref.substring(2); }
                 EmbeddedObject object = palette.getEmbeddedObject(sHref); 
                 if (object!=null) {
+                    String sLaTeX = null;
                     if (MIMETypes.MATH.equals(object.getType()) || MIMETypes.ODF.equals(object.getType())) { // Formula!
                         try {
-                            Document formuladoc = ((EmbeddedXMLObject) object).getContentDOM();
-                            Element formula = Misc.getChildByTagName(formuladoc,XMLString.MATH); // Since OOo3.2
-                            if (formula==null) {
-                            	formula = Misc.getChildByTagName(formuladoc,XMLString.MATH_MATH);
-                            }
-                            String sLaTeX = palette.getMathCv().convert(formula);
-                            if (!" ".equals(sLaTeX)) { // ignore empty formulas
-                            	ldp.append(" $")
-                            	   .append(sLaTeX)
-                            	   .append("$");
-                                if (Character.isLetterOrDigit(OfficeReader.getNextChar(node))) { ldp.append(" "); }
-                            }
+                            sLaTeX = palette.getMathCv().convert((EmbeddedXMLObject) object);
                         }
                         catch (org.xml.sax.SAXException e) {
                             e.printStackTrace();
@@ -162,7 +151,15 @@ public class DrawConverter extends ConverterHelper {
                             e.printStackTrace();
                         }
 	                }
-                    else { // unsupported object, look for replacement image
+                    if (sLaTeX!=null) {
+                        if (!" ".equals(sLaTeX)) { // ignore empty formulas
+                        	ldp.append(" $")
+                        	   .append(sLaTeX)
+                        	   .append("$");
+                            if (Character.isLetterOrDigit(ofr.getTextIndex().getNextChar(node))) { ldp.append(" "); }
+                        }
+                    }
+                    else { // unsupported object or not a formula, look for replacement image
                         Element replacementImage = Misc.getChildByTagName(getFrame(node),XMLString.DRAW_IMAGE);
                         if (replacementImage!=null) {
                             handleDrawImage(replacementImage,ldp,oc);
@@ -184,7 +181,7 @@ public class DrawConverter extends ConverterHelper {
                 ldp.append(" $")
                    .append(palette.getMathCv().convert(formula))
                    .append("$");
-                if (Character.isLetterOrDigit(OfficeReader.getNextChar(node))) { ldp.append(" "); }
+                if (Character.isLetterOrDigit(ofr.getTextIndex().getNextChar(node))) { ldp.append(" "); }
             }
             else { // unsupported object, look for replacement image
                 Element replacementImage = Misc.getChildByTagName(getFrame(node),XMLString.DRAW_IMAGE);
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-05-30)
+ *  Version 2.0 (2026-10-18)
  *
  */
  
@@ -31,6 +31,7 @@ import writer2latex.office.StyleWithProperties;
 import writer2latex.office.XMLString;
 import writer2latex.util.CSVList;
 import writer2latex.util.Calc;
+import writer2latex.util.Length;
 
 /** <p>This class converts OpenDocument graphic (frame) styles to LaTeX</p>
  *  <p>Formatting is done using the package <code>longfbox</code> (controlled by the option <code>use_longfbox</code>)</p> 
@@ -209,9 +210,9 @@ import writer2latex.util.Calc;
 				sPadding = Calc.min(sPaddingTop, sPaddingRight, sPaddingBottom, sPaddingLeft);
 			}
 			if (sPadding!=null) {
-				String sRadius = Calc.multiply(sBorderRadius, sPadding);
-				if (!Calc.isZero(sRadius)) {
-					props.addValue("border-radius", sRadius);
+				Length radius = Length.valueOf(sPadding).multiply(sBorderRadius);
+				if (!radius.isZero()) {
+					props.addValue("border-radius", radius.toString());
 				}
 			}
 			return true;
@@ -315,8 +316,9 @@ import writer2latex.util.Calc;
     		switch (sPos) {
     		case "from-top":
     			props.addValue("vertical-align", "top");
-    			if (!Calc.isZero(sY)) {
-    				props.addValue("raise",Calc.multiply("-100%", sY));
+    			Length y = Length.valueOf(sY);
+    			if (!y.isZero()) {
+    				props.addValue("raise",y.multiply("-100%").toString());
     			}
     			return true;
     		case "middle":
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-06-17)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -27,6 +27,7 @@ package writer2latex.latex;
 
 import org.w3c.dom.Element;
 
+import writer2latex.latex.util.BeforeAfterCache;
 import writer2latex.util.Misc;
 import writer2latex.office.OfficeReader;
 import writer2latex.office.StyleWithProperties;
@@ -63,6 +64,16 @@ class Info extends ConverterHelper {
         }
     }
 
+    void addStatistics(LaTeXDocumentPortion ldp) {
+        if (config.debug()) {
+            ldp.append("% Table readers: ").append(ofr.getTableReaderBuildCount()).append(" created, ")
+               .append(ofr.getTableReaderHitCount()).append(" reused").nl();
+            BeforeAfterCache cache = palette.getCharSc().getTextFormattingCache();
+            ldp.append("% Text formatting cache: ").append(cache.getHitCount()).append(" hits, ")
+               .append(cache.getMissCount()).append(" misses").nl();
+        }
+    }
+
     void addDebugInfo(Element node, LaTeXDocumentPortion ldp, String sAttribute) {
         String sValue = Misc.getAttribute(node,sAttribute);
         if (sValue!=null) {
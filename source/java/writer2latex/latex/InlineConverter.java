@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-05-22)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -167,7 +167,7 @@ public class InlineConverter extends ConverterHelper {
 		        	// - a {foot|end}note is the only content
 		        	// - there is no content
 			        // - this is an automatic style in header/footer (name clash problem, only in package format)
-			        if (!oc.isVerbatim() && !onlyNote(node) && OfficeReader.getCharacterCount(node)>0
+			        if (!oc.isVerbatim() && !onlyNote(node) && ofr.getTextIndex().getCharacterCount(node)>0
 			        	&& !(ofr.isPackageFormat() && (style!=null && style.isAutomatic()) && oc.isInHeaderFooter())) {
 			        	palette.getCharSc().applyTextStyle(sStyleName,ba,ic);
 			        }
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-08-11)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -264,6 +264,12 @@ public class LaTeXConfig extends writer2latex.base.ConfigBase {
                nValue = Misc.getPosInteger(sValue,0);
            }
         });
+        addOption(new IntegerOption("table_chunk_size","0") {
+           public void setString(String sValue) {
+               super.setString(sValue);
+               nValue = Misc.getPosInteger(sValue,0);
+           }
+        });
         addOption(new IntegerOption("notes","comment") {
             public void setString(String sValue) {
                 super.setString(sValue);
@@ -282,6 +288,7 @@ public class LaTeXConfig extends writer2latex.base.ConfigBase {
                 nValue = Misc.getPosInteger(sValue,0);
             }
         });
+        addOption(new BooleanOption("stream_body","false"));
         addOption(new BooleanOption("split_linked_sections","false"));
         addOption(new BooleanOption("split_toplevel_sections","false"));
         addOption(new BooleanOption("save_images_in_subdir","false"));
@@ -771,6 +778,7 @@ public class LaTeXConfig extends writer2latex.base.ConfigBase {
 	
     // Tables
     public int simpleTableLimit() { return ((IntegerOption) options.get("simple_table_limit")).getValue(); }
+    public int tableChunkSize() { return ((IntegerOption) options.get("table_chunk_size")).getValue(); }
 	
     // Notes
     public int notes() { return ((IntegerOption) options.get("notes")).getValue(); }
@@ -784,6 +792,7 @@ public class LaTeXConfig extends writer2latex.base.ConfigBase {
 	
     // Files
     public int wrapLinesAfter() { return ((IntegerOption) options.get("wrap_lines_after")).getValue(); }
+    public boolean streamBody() { return ((BooleanOption) options.get("stream_body")).getValue(); }
     public boolean splitLinkedSections() { return ((BooleanOption) options.get("split_linked_sections")).getValue(); }
     public boolean splitToplevelSections() { return ((BooleanOption) options.get("split_toplevel_sections")).getValue(); }
     public boolean saveImagesInSubdir() { return ((BooleanOption) options.get("save_images_in_subdir")).getValue(); }
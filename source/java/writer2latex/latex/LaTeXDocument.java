@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.6 (2015-05-05)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -27,15 +27,17 @@ package writer2latex.latex;
 
 import writer2latex.api.MIMETypes;
 import writer2latex.api.OutputFile;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * <p>Class representing a LaTeX document.</p>
  *
  */
-public class LaTeXDocument implements OutputFile {
+public class LaTeXDocument implements OutputFile, Closeable {
     private static final String FILE_EXTENSION = ".tex";
 	
     private String sName;
@@ -48,6 +50,9 @@ public class LaTeXDocument implements OutputFile {
     
     private LaTeXDocumentPortion contents;
     
+    // Portions of the document, which are written to temporary files
+    private List<StreamedPortion> streamedPortions = new ArrayList<>();
+    
     /**
      * <p>Constructs a new LaTeX Document.</p>
      *
@@ -106,22 +111,53 @@ public class LaTeXDocument implements OutputFile {
      * method.  User code (i.e. caller) must make sure that
      * calls to this method are thread-safe.</p>
      *
+     * <p>If the document contains portions which have been written to temporary
+     * files, the document can only be written once, as the temporary files are
+     * deleted after writing.</p>
+     *
      * @param  os  <code>OutputStream</code> to write out the
      *             <code>Document</code> content.
      *
      * @throws  IOException  If any I/O error occurs.
      */
     public void write(OutputStream os) throws IOException {
-        OutputStreamWriter osw = new OutputStreamWriter(os,sEncoding);
-        contents.write(osw,nWrap,"\n");
-        osw.flush();
-        osw.close();
+        try {
+            contents.write(os,sEncoding,nWrap,"\n");
+            os.close();
+        }
+        finally {
+            close();
+        }
+    }
+    
+    /**
+     * <p>Release the resources used by this document, i.e. delete any temporary files.
+     * This must be called if the document is discarded without being written.</p>
+     */
+    public void close() {
+        for (StreamedPortion portion : streamedPortions) {
+            portion.dispose();
+        }
+        streamedPortions.clear();
     }
     
     /**
      * <p> Set the output encoding to use when writing the document.</p>
      */
     public void setEncoding(String sEncoding) { this.sEncoding = sEncoding; }
+    
+    /**
+     * <p>Create a portion, which is written to a temporary file while it is created.
+     * The line length and encoding of this document are used, hence the encoding must
+     * be set before calling this method.</p>
+     * 
+     * @return the new <code>StreamedPortion</code>
+     */
+    StreamedPortion createStreamedPortion() {
+        StreamedPortion portion = new StreamedPortion(nWrap,"\n",sEncoding);
+        streamedPortions.add(portion);
+        return portion;
+    }
 
     /**
      * <p>Returns the <code>LaTeXDocumentPortion</code>, that contains the
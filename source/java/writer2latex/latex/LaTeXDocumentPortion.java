@@ -19,23 +19,30 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-07-02)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.latex;
 
-import java.io.OutputStreamWriter;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.Vector;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
-import writer2latex.util.Misc;
+import writer2latex.util.EncodingWriter;
 
 /** This class represents a portion of a LaTeX document. A portion is any
 number of lines, and may include subportions. */
 public class LaTeXDocumentPortion {
 
-    private Vector<Object> nodes; // The collection of all nodes in this portion
+    private List<Object> nodes; // The collection of all nodes in this portion
 
     private StringBuilder curText; // The currently active node (always the last node)
     private boolean bEmpty; // Is the active node empty?
@@ -48,12 +55,13 @@ public class LaTeXDocumentPortion {
      */
     public LaTeXDocumentPortion(boolean bWrap){
         this.bWrap = bWrap;
-        nodes = new Vector<>();
+        nodes = new ArrayList<>();
         curText = new StringBuilder();
         bEmpty = true;
     }
 	
-    /** Add another portion to the end of this portion
+    /** Add another portion to the end of this portion. The portion is not copied, hence
+     *  later additions to the other portion will become part of this portion as well.
      * 
      * @param ldp The <code>LaTeXDocuemtPortion</code> to add
      * @return a reference to this <code>LaTeXDocumentPortion</code> (not the appended one)
@@ -121,76 +129,166 @@ public class LaTeXDocumentPortion {
     	return true;
     }
     
-    /** write a segment of text (eg. a word) to the output */
-    private void writeSegment(String s, int nStart, int nEnd, OutputStreamWriter osw) throws IOException {
-        for (int i=nStart; i<nEnd; i++) { osw.write(s.charAt(i)); }
-    }
-	
-    /** write the contents of a StringBuilder to the output */
-    private void writeBuffer(StringBuilder text, OutputStreamWriter osw, int nLineLen, String sNewline) throws IOException {
-        String s = text.toString();
-        int nLen = s.length();
-
-        int[] nBreakPoints = new int[100];
-        int nLastBPIndex = 99;
-
-        int nStart = 0;
-		
-        while (nStart<nLen) {
-            // identify line and breakpoints
-            int nBPIndex = 0;
-            boolean bEscape = false;
-            boolean bComment = false;
-            int nNewline = nStart;
-            char c;
-            while (nNewline<nLen) {
-                if (nBPIndex==nLastBPIndex) {
-                    nBreakPoints = Misc.doubleIntArray(nBreakPoints);
-                    nLastBPIndex = nBreakPoints.length-1; 
+    /** Helper class to write the content of portions. The characters are collected in a buffer
+     *  and passed to the <code>Writer</code> in bulk.
+     */
+    static final class Output {
+        private final Writer writer;
+        private final OutputStream os; // The underlying stream, if known
+        private final String sEncoding; // The encoding used by the writer to write to the stream
+        private final char[] outBuf = new char[8192];
+        private int nOutLen = 0;
+        private char[] inBuf = new char[1024];
+        
+        Output(Writer writer) {
+            this(writer,null,null);
+        }
+        
+        Output(Writer writer, OutputStream os, String sEncoding) {
+            this.writer = writer;
+            this.os = os;
+            this.sEncoding = sEncoding;
+        }
+        
+        // Get the characters of a StringBuilder. The array is reused for the next StringBuilder.
+        char[] read(StringBuilder text) {
+            int nLen = text.length();
+            if (nLen>inBuf.length) {
+                inBuf = new char[Math.max(nLen, 2*inBuf.length)];
+            }
+            text.getChars(0, nLen, inBuf, 0);
+            return inBuf;
+        }
+        
+        // Write the characters from nStart to nEnd-1 of an array
+        void write(char[] chars, int nStart, int nEnd) throws IOException {
+            int nLen = nEnd-nStart;
+            if (nOutLen+nLen>outBuf.length) {
+                flush();
+                if (nLen>outBuf.length) {
+                    writer.write(chars, nStart, nLen);
+                    return;
                 }
-                c = s.charAt(nNewline);
-                if (c=='\n') {
-                    nBreakPoints[nBPIndex++] = nNewline;
-                    break;
+            }
+            System.arraycopy(chars, nStart, outBuf, nOutLen, nLen);
+            nOutLen += nLen;
+        }
+        
+        // Write a string
+        void write(String s) throws IOException {
+            int nLen = s.length();
+            if (nOutLen+nLen>outBuf.length) {
+                flush();
+                if (nLen>outBuf.length) {
+                    writer.write(s);
+                    return;
                 }
-                if (bEscape) { bEscape = false; }
-                else if (c=='\\') { bEscape = true; }
-                else if (c=='%') { bComment = true; }
-                else if (!bComment && c==' ') { nBreakPoints[nBPIndex++] = nNewline; }
-                nNewline++;
             }
-            if (nBPIndex==nLastBPIndex) {
-                nBreakPoints = Misc.doubleIntArray(nBreakPoints);
-                nLastBPIndex = nBreakPoints.length-1; 
+            s.getChars(0, nLen, outBuf, nOutLen);
+            nOutLen += nLen;
+        }
+        
+        // Write a single character
+        void write(char c) throws IOException {
+            if (nOutLen==outBuf.length) {
+                flush();
             }
-            if (nNewline==nLen) { nBreakPoints[nBPIndex++] = nNewline; }
-			
-            // write out line
-            int nCurLineLen = nBreakPoints[0]-nStart;
-            writeSegment(s,nStart,nBreakPoints[0],osw);
-            for (int i=0; i<nBPIndex-1; i++) {
-                int nSegmentLen = nBreakPoints[i+1]-nBreakPoints[i];
-                if (nSegmentLen+nCurLineLen>nLineLen) {
-                    // break line before this segment
-                    osw.write(sNewline);
-                    nCurLineLen = nSegmentLen;
+            outBuf[nOutLen++] = c;
+        }
+        
+        // Pass the buffered characters to the writer
+        void flush() throws IOException {
+            if (nOutLen>0) {
+                writer.write(outBuf, 0, nOutLen);
+                nOutLen = 0;
+            }
+        }
+        
+        // Write the content of a file with a given encoding. If the encoding is the same as the
+        // encoding of the output, the bytes are copied directly to the underlying stream.
+        void copy(File file, String sFileEncoding) throws IOException {
+            if (os!=null && sFileEncoding.equals(sEncoding)) {
+                flush();
+                writer.flush();
+                Files.copy(file.toPath(), os);
+            }
+            else {
+                try (Reader reader = new InputStreamReader(new FileInputStream(file), sFileEncoding)) {
+                    char[] buf = new char[8192];
+                    int n;
+                    while ((n=reader.read(buf))>0) {
+                        write(buf,0,n);
+                    }
                 }
-                else {
-                    // segment fits in current line
-                    osw.write(" ");
-                    nCurLineLen += nSegmentLen;
-                }					
-                writeSegment(s,nBreakPoints[i]+1,nBreakPoints[i+1],osw);
             }
-            osw.write(sNewline);
-            nStart = nNewline+1;
         }
     }
 	
-    /** write the contents of a StringBuilder to the output without wrap */
-    private void writeBuffer(StringBuilder text, OutputStreamWriter osw, String sNewline) throws IOException {
-        String s = text.toString();
-        int nLen = s.length();
+    /** write the first nLen characters of a StringBuilder to the output. Lines are broken at spaces,
+     *  but not at escaped spaces or spaces within comments. The text is written in a single pass: Each
+     *  segment (the text between two possible breakpoints) is written as soon as the end of the segment
+     *  is found, preceded by a space or a line break.
+     */
+    private void writeWrapped(StringBuilder text, int nLen, Output out, int nLineLen, String sNewline) throws IOException {
+        char[] s = out.read(text);
+
+        int nSegmentStart = 0; // The start of the current segment
+        int nCurLineLen = -1; // The length of the current line, or -1 if no segment has been written
+        boolean bEscape = false;
+        boolean bComment = false;
+        for (int i=0; i<nLen; i++) {
+            char c = s[i];
+            if (c=='\n') {
+                // end of line; write the last segment and the newline
+                writeSegment(s,nSegmentStart,i,nCurLineLen,out,nLineLen,sNewline);
+                out.write(sNewline);
+                nSegmentStart = i+1;
+                nCurLineLen = -1;
+                bEscape = false;
+                bComment = false;
+            }
+            else if (bEscape) { bEscape = false; }
+            else if (c=='\\') { bEscape = true; }
+            else if (c=='%') { bComment = true; }
+            else if (!bComment && c==' ') {
+                // breakpoint; write the segment
+                nCurLineLen = writeSegment(s,nSegmentStart,i,nCurLineLen,out,nLineLen,sNewline);
+                nSegmentStart = i+1;
+            }
+        }
+        if (nSegmentStart<nLen || nCurLineLen>=0) {
+            // the text does not end with a newline
+            writeSegment(s,nSegmentStart,nLen,nCurLineLen,out,nLineLen,sNewline);
+            out.write(sNewline);
+        }
+    }
+    
+    // Write a segment, and return the new line length. The length of a segment includes the preceding space
+    // (even if the space is replaced by a line break)
+    private int writeSegment(char[] s, int nStart, int nEnd, int nCurLineLen, Output out, int nLineLen, String sNewline) throws IOException {
+        if (nCurLineLen<0) {
+            // first segment in line
+            out.write(s,nStart,nEnd);
+            return nEnd-nStart;
+        }
+        int nSegmentLen = nEnd-nStart+1;
+        if (nSegmentLen+nCurLineLen>nLineLen) {
+            // break line before this segment
+            out.write(sNewline);
+            nCurLineLen = nSegmentLen;
+        }
+        else {
+            // segment fits in current line
+            out.write(' ');
+            nCurLineLen += nSegmentLen;
+        }
+        out.write(s,nStart,nEnd);
+        return nCurLineLen;
+    }
+	
+    /** write the first nLen characters of a StringBuilder to the output without wrap */
+    private void writeUnwrapped(StringBuilder text, int nLen, Output out, String sNewline) throws IOException {
+        char[] s = out.read(text);
 
         int nStart = 0;
 		
@@ -198,44 +296,95 @@ public class LaTeXDocumentPortion {
             // identify line
             int nNewline = nStart;
             while (nNewline<nLen) {
-                if (s.charAt(nNewline)=='\n') { break; }
+                if (s[nNewline]=='\n') { break; }
                 nNewline++;
             }
 			
             // write out line
-            writeSegment(s,nStart,nNewline,osw);
-            osw.write(sNewline);
+            out.write(s,nStart,nNewline);
+            out.write(sNewline);
             nStart = nNewline+1;
         }
     }
 
     /** Write this portion to the output
      * 
-     * @param osw an <code>OutputStreamWriter</code> to write to
+     * @param writer a <code>Writer</code> to write to
+     * @param nLineLen the line length after which automatic line breaks should occur if allowed (nLineLen=0 means no wrap)
+     * @param sNewline the newline character(s) to use
+     * @throws IOException if an exception occurs writing to to the writer
+     */
+    public void write(Writer writer, int nLineLen, String sNewline) throws IOException {
+        Output out = new Output(writer);
+        write(out,nLineLen,sNewline);
+        out.flush();
+    }
+    
+    /** Write this portion to an output stream. The stream is not closed.
+     * 
+     * @param os the <code>OutputStream</code> to write to
+     * @param sEncoding the name of the encoding to use
      * @param nLineLen the line length after which automatic line breaks should occur if allowed (nLineLen=0 means no wrap)
      * @param sNewline the newline character(s) to use
-     * @throws IOException if an exception occurs writing to to osw
+     * @throws IOException if an exception occurs writing to to the stream, or if the encoding is not supported
      */
-    public void write(OutputStreamWriter osw, int nLineLen, String sNewline) throws IOException {
+    public void write(OutputStream os, String sEncoding, int nLineLen, String sNewline) throws IOException {
+        EncodingWriter writer = new EncodingWriter(os,sEncoding);
+        Output out = new Output(writer,os,sEncoding);
+        write(out,nLineLen,sNewline);
+        out.flush();
+        writer.flush();
+    }
+    
+    // Write this portion and all subportions to an Output
+    void write(Output out, int nLineLen, String sNewline) throws IOException {
+        writeNodes(out,nLineLen,sNewline);
+        if (!bEmpty) { // write current node as well
+            writeBuffer(curText,curText.length(),out,nLineLen,sNewline);
+        }
+    }
+    
+    // Write the completed lines of this portion to an Output and remove them from this portion.
+    // The content of the subportions must be complete when this method is called.
+    // Returns true if anything was written.
+    boolean writeCompleted(Output out, int nLineLen, String sNewline) throws IOException {
+        boolean bWritten = !nodes.isEmpty();
+        writeNodes(out,nLineLen,sNewline);
+        nodes.clear();
+        if (!bEmpty) {
+            // Lines are written independently of each other, so we can keep the last, unfinished line
+            int nLen = curText.lastIndexOf("\n")+1;
+            if (nLen>0) {
+                writeBuffer(curText,nLen,out,nLineLen,sNewline);
+                curText.delete(0, nLen);
+                bWritten = true;
+            }
+        }
+        return bWritten;
+    }
+    
+    // Write all nodes except the current node
+    private void writeNodes(Output out, int nLineLen, String sNewline) throws IOException {
         int n = nodes.size();
         for (int i=0; i<n; i++) {
-            if (nodes.get(i) instanceof LaTeXDocumentPortion) {
-                ((LaTeXDocumentPortion) nodes.get(i)).write(osw,nLineLen,sNewline);
-            }
-            else if (bWrap && nLineLen>0) {
-                writeBuffer((StringBuilder) nodes.get(i),osw,nLineLen,sNewline);
+            Object node = nodes.get(i);
+            if (node instanceof LaTeXDocumentPortion) {
+                ((LaTeXDocumentPortion) node).write(out,nLineLen,sNewline);
             }
             else {
-                writeBuffer((StringBuilder) nodes.get(i),osw,sNewline);
+                StringBuilder text = (StringBuilder) node;
+                writeBuffer(text,text.length(),out,nLineLen,sNewline);
             }
         }
-        if (!bEmpty) { // write current node as well
-            if (bWrap && nLineLen>0) {
-                writeBuffer(curText,osw,nLineLen,sNewline);
-            }
-            else {
-                writeBuffer(curText,osw,sNewline);
-            }
+    }
+    
+    // Write the contents of a StringBuilder, with wrap if allowed
+    private void writeBuffer(StringBuilder text, int nLen, Output out, int nLineLen, String sNewline) throws IOException {
+        if (bWrap && nLineLen>0) {
+            writeWrapped(text,nLen,out,nLineLen,sNewline);
+        }
+        else {
+            writeUnwrapped(text,nLen,out,sNewline);
         }
     }
 	
@@ -19,14 +19,13 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-06-18)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.latex;
 
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 
 import writer2latex.util.CSVList;
 
@@ -94,9 +93,9 @@ public class LaTeXPacman extends LaTeXDocumentPortion {
     
     // The same applies to the write methods
     
-    @Override public void write(OutputStreamWriter osw, int nLineLen, String sNewline) throws IOException {
+    @Override void write(Output out, int nLineLen, String sNewline) throws IOException {
     	usepackages();
-    	super.write(osw, nLineLen, sNewline);
+    	super.write(out, nLineLen, sNewline);
     }
     
     @Override public String toString() {
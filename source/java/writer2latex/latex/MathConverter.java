@@ -19,19 +19,21 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-06-10)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.latex;
 
 
+import java.io.IOException;
 import java.util.Map;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
 
 import writer2latex.base.ConverterBase.TexMathsStyle;
 import writer2latex.office.EmbeddedObject;
@@ -142,6 +144,50 @@ public final class MathConverter extends ConverterHelper {
 			
     }
 
+    /** Convert an embedded formula object. If possible, only the StarMath annotation is read from the object,
+     *  otherwise the DOM tree of the object is created and converted.
+     * 
+     * @param object the formula object
+     * @return the LaTeX code, or null if the object does not contain a MathML formula
+     * @throws SAXException if an error occurs parsing the object
+     * @throws IOException if an error occurs reading the object
+     */
+    public String convert(EmbeddedXMLObject object) throws SAXException, IOException {
+    	String sStarMath = object.getStarMathAnnotation();
+    	if (sStarMath!=null) {
+            bContainsFormulas = true;      
+            return smc.convert(sStarMath);
+    	}
+    	Element formula = getFormula(object);
+    	return formula!=null ? convert(formula) : null;
+    }
+    
+    // Get the MathML root element from the content DOM of an embedded object, or null if there is none
+    private static Element getFormula(EmbeddedXMLObject object) throws SAXException, IOException {
+    	Document formuladoc = object.getContentDOM();
+    	if (formuladoc==null) { return null; }
+    	Element formula = Misc.getChildByTagName(formuladoc,XMLString.MATH); // Since OOo 3.2
+    	if (formula==null) {
+    		formula = Misc.getChildByTagName(formuladoc,XMLString.MATH_MATH);
+    	}
+    	return formula;
+    }
+    
+    // Test whether an embedded object contains a MathML formula. The DOM tree is only created
+    // if the StarMath annotation cannot be read directly.
+    private static boolean containsFormula(EmbeddedXMLObject object) {
+    	try {
+    		return object.getStarMathAnnotation()!=null || getFormula(object)!=null;
+    	}
+    	catch (SAXException e) {
+    		e.printStackTrace();
+    	}
+    	catch (IOException e) {
+    		e.printStackTrace();
+    	}
+    	return false;
+    }
+
     /** Try to convert a draw:frame or draw:g element as an (inline) TexMaths or OOoLaTeX equation
      * 
      * @param node the element containing the equation (draw:frame or draw:g)
@@ -240,10 +286,24 @@ public final class MathConverter extends ConverterHelper {
     		style = palette.getTexMathsStyle(Misc.getPCDATA(equation));
     		if (sLaTeX!=null) { bNeedTexMathsPreamble = true; }
     	}
-    	else {
+    	else if (XMLString.MATH.equals(equation.getTagName()) || XMLString.MATH_MATH.equals(equation.getTagName())) {
     		// MathML equation
     		sLaTeX = convert(equation);
     	}
+    	else {
+    		// Embedded formula object
+    		try {
+    			sLaTeX = convert(getEmbeddedFormula(equation));
+    		}
+    		catch (SAXException e) {
+    			e.printStackTrace();
+    			sLaTeX = null;
+    		}
+    		catch (IOException e) {
+    			e.printStackTrace();
+    			sLaTeX = null;
+    		}
+    	}
     	if (sLaTeX!=null && !" ".equals(sLaTeX)) { // ignore empty formulas
     		// Add punctuation character
     		if (cPunctuation!='\u0000') {
@@ -392,10 +452,12 @@ public final class MathConverter extends ConverterHelper {
         return true;
     }
 
-    /** Get a MathML formula from a draw:frame
+    /** Get a MathML formula from a draw:frame. For an embedded formula object, the object is not converted at this point,
+     *  but it is verified that the object contains a formula.
      * 
      * @param node the draw:frame
-     * @return the MathML element, or null if this is not a MathML formula
+     * @return the MathML element or the element referring to an embedded formula object,
+     * or null if this is not a MathML formula
      */
     private Element getMathmlEquation(Element node) {
         if (node.getTagName().equals(XMLString.DRAW_FRAME)) {
@@ -405,29 +467,10 @@ public final class MathConverter extends ConverterHelper {
         String sHref = Misc.getAttribute(node,XMLString.XLINK_HREF);
 		
         if (sHref!=null) { // Embedded object in package or linked object
-            if (ofr.isInPackage(sHref)) { // Embedded object in package
-                if (sHref.startsWith("#")) { sHref=sHref.substring(1); }
-                if (sHref.startsWith("./")) { sHref=sHref.substring(2); }
-                EmbeddedObject object = palette.getEmbeddedObject(sHref); 
-                if (object!=null) {
-                    if (MIMETypes.MATH.equals(object.getType()) || MIMETypes.ODF.equals(object.getType())) { // Formula!
-                        try {
-                            Document formuladoc = ((EmbeddedXMLObject) object).getContentDOM();
-                            Element formula = Misc.getChildByTagName(formuladoc,XMLString.MATH); // Since OOo 3.2
-                            if (formula==null) {
-                            	formula = Misc.getChildByTagName(formuladoc,XMLString.MATH_MATH);
-                            }
-                            return formula;
-                        }
-                        catch (org.xml.sax.SAXException e) {
-                            e.printStackTrace();
-                        }
-                        catch (java.io.IOException e) {
-                            e.printStackTrace();
-                        }
-	                }
-                }
-            }
+        	EmbeddedXMLObject object = getEmbeddedFormula(node);
+        	if (object!=null && containsFormula(object)) {
+        		return node;
+        	}
         }
         else { // flat XML, object is contained in node
             Element formula = Misc.getChildByTagName(node,XMLString.MATH); // Since OOo 3.2
@@ -438,6 +481,20 @@ public final class MathConverter extends ConverterHelper {
         }
         return null;
     }
+    
+    // Get the embedded formula object referred to by an element, or null if the element does not refer to a formula
+    private EmbeddedXMLObject getEmbeddedFormula(Element node) {
+        String sHref = Misc.getAttribute(node,XMLString.XLINK_HREF);
+        if (sHref!=null && ofr.isInPackage(sHref)) { // Embedded object in package
+            if (sHref.startsWith("#")) { sHref=sHref.substring(1); }
+            if (sHref.startsWith("./")) { sHref=sHref.substring(2); }
+            EmbeddedObject object = palette.getEmbeddedObject(sHref); 
+            if (object!=null && (MIMETypes.MATH.equals(object.getType()) || MIMETypes.ODF.equals(object.getType()))) { // Formula!
+            	return (EmbeddedXMLObject) object;
+            }
+        }
+        return null;
+    }
 
 
 }
\ No newline at end of file
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-05-31)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -31,6 +31,7 @@ import org.w3c.dom.Node;
 
 import writer2latex.util.CSVList;
 import writer2latex.util.Calc;
+import writer2latex.util.Length;
 import writer2latex.util.Misc;
 import writer2latex.latex.util.BeforeAfter;
 import writer2latex.latex.util.Context;
@@ -643,60 +644,66 @@ public class PageStyleConverter extends StyleConverter {
     }
     
     private boolean standardPaperSize(String sWidth, String sHeight) {
+    	Length width = Length.valueOf(sWidth);
+    	Length height = Length.valueOf(sHeight);
         // We recognize all paper sizes known by geometry.sty (only some of them are standard sizes in LO)
-    	return standardPaperSize1(sWidth, sHeight, "8.5in", "11in", "letterpaper") ||
-    	standardPaperSize1(sWidth, sHeight, "8.5in", "14in", "legalpaper") ||
-    	standardPaperSize1(sWidth, sHeight, "7.25in", "10.5in", "executivepaper") ||
+    	return standardPaperSize1(width, height, "8.5in", "11in", "letterpaper") ||
+    	standardPaperSize1(width, height, "8.5in", "14in", "legalpaper") ||
+    	standardPaperSize1(width, height, "7.25in", "10.5in", "executivepaper") ||
     	// ISO A paper
-    	standardPaperSize1(sWidth, sHeight, "841mm", "1189mm", "a0paper") ||
-    	standardPaperSize1(sWidth, sHeight, "594mm", "841mm", "a1paper") ||
-    	standardPaperSize1(sWidth, sHeight, "420mm", "594mm", "a2paper") ||
-    	standardPaperSize1(sWidth, sHeight, "297mm", "420mm", "a3paper") ||
-    	standardPaperSize1(sWidth, sHeight, "210mm", "297mm", "a4paper") ||
-    	standardPaperSize1(sWidth, sHeight, "148mm", "210mm", "a5paper") ||
-    	standardPaperSize1(sWidth, sHeight, "105mm", "148mm", "a6paper") ||
+    	standardPaperSize1(width, height, "841mm", "1189mm", "a0paper") ||
+    	standardPaperSize1(width, height, "594mm", "841mm", "a1paper") ||
+    	standardPaperSize1(width, height, "420mm", "594mm", "a2paper") ||
+    	standardPaperSize1(width, height, "297mm", "420mm", "a3paper") ||
+    	standardPaperSize1(width, height, "210mm", "297mm", "a4paper") ||
+    	standardPaperSize1(width, height, "148mm", "210mm", "a5paper") ||
+    	standardPaperSize1(width, height, "105mm", "148mm", "a6paper") ||
     	// ISO B paper
-    	standardPaperSize1(sWidth, sHeight, "1000mm", "1414mm", "b0paper") ||
-    	standardPaperSize1(sWidth, sHeight, "707mm", "1000mm", "b1paper") ||
-    	standardPaperSize1(sWidth, sHeight, "500mm", "707mm", "b2paper") ||
-    	standardPaperSize1(sWidth, sHeight, "353mm", "500mm", "b3paper") ||
-    	standardPaperSize1(sWidth, sHeight, "250mm", "353mm", "b4paper") ||
-    	standardPaperSize1(sWidth, sHeight, "176mm", "250mm", "b5paper") ||
-    	standardPaperSize1(sWidth, sHeight, "125mm", "176mm", "b6paper") ||
+    	standardPaperSize1(width, height, "1000mm", "1414mm", "b0paper") ||
+    	standardPaperSize1(width, height, "707mm", "1000mm", "b1paper") ||
+    	standardPaperSize1(width, height, "500mm", "707mm", "b2paper") ||
+    	standardPaperSize1(width, height, "353mm", "500mm", "b3paper") ||
+    	standardPaperSize1(width, height, "250mm", "353mm", "b4paper") ||
+    	standardPaperSize1(width, height, "176mm", "250mm", "b5paper") ||
+    	standardPaperSize1(width, height, "125mm", "176mm", "b6paper") ||
     	// ISO C paper (envelope size)
-    	standardPaperSize1(sWidth, sHeight, "917mm", "1297mm", "c0paper") ||
-    	standardPaperSize1(sWidth, sHeight, "648mm", "917mm", "c1paper") ||
-    	standardPaperSize1(sWidth, sHeight, "458mm", "648mm", "c2paper") ||
-    	standardPaperSize1(sWidth, sHeight, "324mm", "458mm", "c3paper") ||
-    	standardPaperSize1(sWidth, sHeight, "229mm", "324mm", "c4paper") ||
-    	standardPaperSize1(sWidth, sHeight, "162mm", "229mm", "c5paper") ||
-    	standardPaperSize1(sWidth, sHeight, "114mm", "162mm", "c6paper") ||
+    	standardPaperSize1(width, height, "917mm", "1297mm", "c0paper") ||
+    	standardPaperSize1(width, height, "648mm", "917mm", "c1paper") ||
+    	standardPaperSize1(width, height, "458mm", "648mm", "c2paper") ||
+    	standardPaperSize1(width, height, "324mm", "458mm", "c3paper") ||
+    	standardPaperSize1(width, height, "229mm", "324mm", "c4paper") ||
+    	standardPaperSize1(width, height, "162mm", "229mm", "c5paper") ||
+    	standardPaperSize1(width, height, "114mm", "162mm", "c6paper") ||
     	// Japanese B paper
-    	standardPaperSize1(sWidth, sHeight, "1030mm", "1456mm", "b0j") ||
-    	standardPaperSize1(sWidth, sHeight, "728mm", "1030mm", "b1j") ||
-    	standardPaperSize1(sWidth, sHeight, "515mm", "728mm", "b2j") ||
-    	standardPaperSize1(sWidth, sHeight, "364mm", "515mm", "b3j") ||
-    	standardPaperSize1(sWidth, sHeight, "257mm", "364mm", "b4j") ||
-    	standardPaperSize1(sWidth, sHeight, "182mm", "257mm", "b5j") ||
-    	standardPaperSize1(sWidth, sHeight, "128mm", "182mm", "b6j") ||
+    	standardPaperSize1(width, height, "1030mm", "1456mm", "b0j") ||
+    	standardPaperSize1(width, height, "728mm", "1030mm", "b1j") ||
+    	standardPaperSize1(width, height, "515mm", "728mm", "b2j") ||
+    	standardPaperSize1(width, height, "364mm", "515mm", "b3j") ||
+    	standardPaperSize1(width, height, "257mm", "364mm", "b4j") ||
+    	standardPaperSize1(width, height, "182mm", "257mm", "b5j") ||
+    	standardPaperSize1(width, height, "128mm", "182mm", "b6j") ||
     	// ANSI paper
-    	standardPaperSize1(sWidth, sHeight, "8.5in", "14in", "ansiapaper") || // identical to letter
-    	standardPaperSize1(sWidth, sHeight, "11in", "17in", "ansibpaper") || // AKA ledger or tabloid
-    	standardPaperSize1(sWidth, sHeight, "17in", "22in", "ansicpaper") ||
-    	standardPaperSize1(sWidth, sHeight, "22in", "34in", "ansidpaper") ||
-    	standardPaperSize1(sWidth, sHeight, "34in", "44in", "ansiepaper") ||
+    	standardPaperSize1(width, height, "8.5in", "14in", "ansiapaper") || // identical to letter
+    	standardPaperSize1(width, height, "11in", "17in", "ansibpaper") || // AKA ledger or tabloid
+    	standardPaperSize1(width, height, "17in", "22in", "ansicpaper") ||
+    	standardPaperSize1(width, height, "22in", "34in", "ansidpaper") ||
+    	standardPaperSize1(width, height, "34in", "44in", "ansiepaper") ||
     	// The special "screen" size of geometry.sty
-    	standardPaperSize1(sWidth, sHeight, "225mm", "180mm", "screen");
+    	standardPaperSize1(width, height, "225mm", "180mm", "screen");
     }
     
-    private boolean standardPaperSize1(String sWidth, String sHeight, String sStandardWidth, String sStandardHeight, String sPapersize) {
-    	if (compare(sStandardWidth,sWidth,Calc.multiply("0.5%", sStandardWidth))
-    			&& compare(sStandardHeight,sHeight,Calc.multiply("0.5%", sStandardHeight))) {
+    private boolean standardPaperSize1(Length width, Length height, String sStandardWidth, String sStandardHeight, String sPapersize) {
+    	Length standardWidth = Length.valueOf(sStandardWidth);
+    	Length standardHeight = Length.valueOf(sStandardHeight);
+    	Length widthTolerance = standardWidth.multiply("0.5%");
+    	Length heightTolerance = standardHeight.multiply("0.5%");
+    	if (compare(standardWidth,width,widthTolerance)
+    			&& compare(standardHeight,height,heightTolerance)) {
     		palette.addGlobalOption(sPapersize);
     		return true;
     	}
-    	else if(compare(sStandardWidth,sHeight,Calc.multiply("0.5%", sStandardWidth))
-        		&& compare(sStandardHeight,sWidth,Calc.multiply("0.5%", sStandardHeight))) {
+    	else if(compare(standardWidth,height,widthTolerance)
+        		&& compare(standardHeight,width,heightTolerance)) {
     		palette.addGlobalOption(sPapersize);
     		palette.addGlobalOption("landscape");
     		return true;
@@ -704,8 +711,8 @@ public class PageStyleConverter extends StyleConverter {
     	return false;
     }
 	
-    private boolean compare(String sLength1, String sLength2, String sTolerance) {
-        return Calc.isLessThan(Calc.abs(Calc.sub(sLength1,sLength2)),sTolerance);
+    private boolean compare(Length length1, Length length2, Length tolerance) {
+        return length1.sub(length2).abs().isLessThan(tolerance);
     }
 
     /* Helper: Get display name, or original name if it doesn't exist */
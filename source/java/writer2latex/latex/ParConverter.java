@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-08-18)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -142,7 +142,7 @@ class ParConverter extends StyleConverter {
         // In a well-structured document, an empty paragraph is probably a mistake,
         // hence the configuration can specify that it should be ignored.
         // Note: Don't use \bigskip in tables (this can lead to strange results)
-        if (OfficeReader.isWhitespaceContent(node)) {
+        if (ofr.getTextIndex().isWhitespaceContent(node)) {
             // Always add page break; other formatting is ignored
             BeforeAfter baPage = new BeforeAfter();
             palette.getPageSc().applyPageBreak(style,true,baPage);
@@ -171,10 +171,10 @@ class ParConverter extends StyleConverter {
         int nBreakAfter;
         BeforeAfter ba = new BeforeAfter();
         if (oc.isInTable()) {
-            nBreakAfter = applyCellParStyle(sStyleName,ba,ic,OfficeReader.getCharacterCount(node)==0,bLastInBlock);
+            nBreakAfter = applyCellParStyle(sStyleName,ba,ic,ofr.getTextIndex().getCharacterCount(node)==0,bLastInBlock);
         }
         else {
-            nBreakAfter = applyParStyle(sStyleName,ba,ic,OfficeReader.getCharacterCount(node)==0);
+            nBreakAfter = applyParStyle(sStyleName,ba,ic,ofr.getTextIndex().getCharacterCount(node)==0);
         }
 		
         // Do conversion
@@ -207,8 +207,7 @@ class ParConverter extends StyleConverter {
                 // only character formatting!
                 StyleWithProperties style = ofr.getParStyle(sName);
                 if (style!=null) {
-                    palette.getI18n().applyLanguage(style,true,true,ba);
-                    palette.getCharSc().applyFont(style,true,true,ba,context);
+                    palette.getCharSc().applyTextFormatting(style,true,true,false,ba,context);
                     if (ba.getBefore().length()>0) { ba.add(" ",""); }
                 }
             }
@@ -280,8 +279,7 @@ class ParConverter extends StyleConverter {
 	                    else if ("end".equals(sTextAlign)) { baPar.add("\\raggedleft","\\par"); }
 	                }
 	            }
-                palette.getI18n().applyLanguage(style,true,true,baText);
-                palette.getCharSc().applyFont(style,true,true,baText,context);
+                palette.getCharSc().applyTextFormatting(style,true,true,false,baText,context);
             }
 
             // Group the contents if this is not the last paragraph in the cell
@@ -0,0 +1,173 @@
+/************************************************************************
+ *
+ *  StreamedPortion.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.latex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+
+import writer2latex.util.EncodingWriter;
+
+/** This class represents a portion of a LaTeX document, which is written to a temporary file while it is
+ *  created. Only completed content is written to the file, the remaining content is kept in memory.
+ *  When the portion is written, the content of the temporary file is copied to the output, followed
+ *  by the content in memory. Hence the memory used by the portion is bounded by the content created
+ *  between two calls to <code>flush</code> rather than by the content of the entire portion.
+ *  The temporary file is deleted when the portion has been written, hence the portion can only be
+ *  written once. If the portion is not written, <code>dispose</code> must be called to delete the file.
+ */
+class StreamedPortion extends LaTeXDocumentPortion {
+	
+    private int nLineLen;
+    private String sNewline;
+    private String sEncoding;
+    
+    private File file = null; // The temporary file
+    private Writer writer = null; // The writer for the temporary file while it is open
+    private Output out = null;
+    private boolean bClosed = false; // True if the temporary file has been closed
+    private boolean bWritten = false; // True if any content has been written to the temporary file
+    private boolean bDisposed = false; // True if the temporary file has been deleted
+    private IOException exception = null; // An exception that occured while writing to the temporary file
+    
+    /** Construct a new empty <code>StreamedPortion</code>. Lines may be wrapped on writing.
+     * 
+     * @param nLineLen the line length after which automatic line breaks should occur (nLineLen=0 means no wrap)
+     * @param sNewline the newline character(s) to use
+     * @param sEncoding the encoding to use for the temporary file; this should be the encoding used to
+     * write the document
+     */
+    StreamedPortion(int nLineLen, String sNewline, String sEncoding) {
+        super(true);
+        this.nLineLen = nLineLen;
+        this.sNewline = sNewline;
+        this.sEncoding = sEncoding;
+    }
+    
+    /** Write the completed content of this portion to the temporary file. The content of all subportions
+     *  must be complete, as they cannot be modified after this. If an exception occurs, the content is
+     *  kept in memory and the exception is thrown by <code>close</code>.
+     */
+    void flush() {
+        if (bClosed || bDisposed || exception!=null) { return; }
+        try {
+            if (out==null) {
+                file = File.createTempFile("w2l", ".tex");
+                writer = new EncodingWriter(new FileOutputStream(file),sEncoding);
+                out = new Output(writer);
+            }
+            if (writeCompleted(out,nLineLen,sNewline)) {
+                bWritten = true;
+            }
+        }
+        catch (IOException e) {
+            exception = e;
+        }
+    }
+    
+    /** Close the temporary file. Any content added after this is kept in memory.
+     * 
+     * @throws IOException if an exception occured while writing to the temporary file
+     */
+    void close() throws IOException {
+        if (!bClosed) {
+            bClosed = true;
+            if (out!=null) {
+                try {
+                    out.flush();
+                }
+                finally {
+                    writer.close();
+                }
+            }
+        }
+        if (exception!=null) {
+            throw exception;
+        }
+    }
+    
+    /** Delete the temporary file. Content which has been written to the file is lost, and the portion
+     *  cannot be written after this.
+     */
+    void dispose() {
+        if (!bDisposed) {
+            bDisposed = true;
+            bClosed = true;
+            if (writer!=null) {
+                try {
+                    writer.close();
+                }
+                catch (IOException e) {
+                    // Ignore, the file is deleted anyway
+                }
+            }
+            if (file!=null) {
+                file.delete();
+                file = null;
+            }
+        }
+    }
+    
+    @Override public boolean isEmpty() {
+        return !bWritten && super.isEmpty();
+    }
+
+    @Override void write(Output out, int nLineLen, String sNewline) throws IOException {
+        if (bDisposed && bWritten) {
+            throw new IOException("The LaTeX document has already been written");
+        }
+        try {
+            close();
+            if (file!=null) {
+                out.copy(file,sEncoding);
+            }
+        }
+        finally {
+            dispose();
+        }
+        super.write(out, nLineLen, sNewline);
+    }
+    
+    /** Return the content of this portion as a string. The content of the temporary file is included
+     *  as it was written, i.e. with line breaks applied.
+     * 
+     *  @return a string representation of the <code>StreamedPortion</code>
+     */
+    @Override public String toString() {
+        if (file!=null) {
+            try {
+                close();
+                return new String(Files.readAllBytes(file.toPath()),sEncoding)+super.toString();
+            }
+            catch (IOException e) {
+                // Fall through and return the content in memory
+            }
+        }
+        return super.toString();
+    }
+}
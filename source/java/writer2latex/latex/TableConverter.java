@@ -19,12 +19,20 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-06-30)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.latex;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import writer2latex.util.*;
@@ -49,7 +57,11 @@ enum RowType {
  *    <li>float_tables = true|false</li>
  *    <li>float_options = &lt;string&gt;</li>
  *    <li>table_content = accept|ignore|warning|error</li>
+ *    <li>table_chunk_size = &lt;integer&gt;</li>
  *  </ul>
+ *  <p>If table_chunk_size is positive, long tables in spreadsheet documents are converted
+ *  one chunk of rows at a time. Each chunk is exported as a separate longtable,
+ *  with the table head repeated in each chunk.</p>
  *     
  */
 public class TableConverter extends ConverterHelper {
@@ -58,6 +70,11 @@ public class TableConverter extends ConverterHelper {
     private boolean bNeedTabulary = false;
     private boolean bNeedColortbl = false;
     private boolean bContainsTables = false;
+    
+    // Tables which are prepared in advance; access must be synchronized on the map
+    private Map<Element,Future<PreparedTable>> preparedTables = new IdentityHashMap<Element,Future<PreparedTable>>();
+    // Set when the prepared tables have been discarded; access must be synchronized on preparedTables
+    private boolean bDiscarded = false;
 	
     /** <p>Constructs a new <code>TableConverter</code>.</p>
      */
@@ -83,6 +100,96 @@ public class TableConverter extends ConverterHelper {
         }
     }
 	
+    /** Prepare the tables (sheets) of a spreadsheet document for conversion. The sheets are read
+     *  and analyzed concurrently using an executor. This includes the layout of the cells, alignment,
+     *  borders and colors, which only depend on the document. The conversion to LaTeX is performed
+     *  sequentially as the tables are met, and the result does not depend on the executor.
+     * 
+     * @param content the element containing the tables (office:spreadsheet)
+     * @param oc the context in which the tables will be converted
+     * @param executor the <code>Executor</code> to use
+     */
+    public void prepareTables(Element content, Context oc, Executor executor) {
+        final boolean bAllowPageBreak = !oc.isInMulticols();
+        final boolean bIsInTable = oc.isInTable();
+        synchronized (preparedTables) {
+            bDiscarded = false;
+        }
+        Node child = content.getFirstChild();
+        while (child!=null) {
+            if (Misc.isElement(child, XMLString.TABLE_TABLE)) {
+                final Element node = (Element) child;
+                FutureTask<PreparedTable> task = new FutureTask<PreparedTable>(new Callable<PreparedTable>() {
+                    public PreparedTable call() {
+                        PreparedTable prepared = new PreparedTable(node,bAllowPageBreak,bIsInTable);
+                        synchronized (preparedTables) {
+                            if (bDiscarded) {
+                                // Discarded while we were preparing the table, so nobody will release the reader
+                                ofr.releaseTableReader(node);
+                            }
+                        }
+                        return prepared;
+                    }
+                });
+                synchronized (preparedTables) {
+                    preparedTables.put(node, task);
+                }
+                executor.execute(task);
+            }
+            child = child.getNextSibling();
+        }
+    }
+    
+    /** Discard the tables prepared by <code>prepareTables</code>, which have not been converted.
+     *  Preparation of these tables is cancelled if it has not yet started, and the table readers
+     *  are released.
+     */
+    public void discardPreparedTables() {
+        synchronized (preparedTables) {
+            bDiscarded = true;
+            for (Map.Entry<Element,Future<PreparedTable>> entry : preparedTables.entrySet()) {
+                entry.getValue().cancel(false);
+                // If the table is being prepared, the task will release the reader when done
+                ofr.releaseTableReader(entry.getKey());
+            }
+            preparedTables.clear();
+        }
+    }
+    
+    // Get a table, using a prepared table if it is available
+    private PreparedTable getPreparedTable(Element node, boolean bAllowPageBreak, boolean bIsInTable) {
+        Future<PreparedTable> task;
+        synchronized (preparedTables) {
+            task = preparedTables.remove(node);
+        }
+        if (task!=null) {
+            PreparedTable prepared = join(task);
+            if (prepared.bAllowPageBreak==bAllowPageBreak && prepared.bIsInTable==bIsInTable) {
+                return prepared;
+            }
+        }
+        return new PreparedTable(node,bAllowPageBreak,bIsInTable);
+    }
+    
+    // Wait for a prepared table to be ready
+    private static PreparedTable join(Future<PreparedTable> task) {
+        try {
+            return task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing a table");
+        }
+        catch (ExecutionException e) {
+            // The task does not throw checked exceptions
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+	
     // Export a lonely table caption
     public void handleCaption(Element node, LaTeXDocumentPortion ldp, Context oc) {
         ldp.append("\\captionof{table}");
@@ -101,8 +208,14 @@ public class TableConverter extends ConverterHelper {
         // Export table, if allowed by the configuration
         switch (config.tableContent()) {
         case LaTeXConfig.ACCEPT:
-            new SingleTableConverter().handleTable(node,caption,bCaptionAbove,ldp,oc);
-            bContainsTables = true;
+            try {
+                new SingleTableConverter().handleTable(node,caption,bCaptionAbove,ldp,oc);
+                bContainsTables = true;
+            }
+            finally {
+                // The table has been exported (or failed), so we don't need the table reader anymore
+                ofr.releaseTableReader(node);
+            }
             break;
         case LaTeXConfig.IGNORE:
             // Ignore table silently
@@ -115,6 +228,49 @@ public class TableConverter extends ConverterHelper {
         }
     }
 	
+    // Inner class to hold a table and its formatter (for long spreadsheet tables: the formatter for the first chunk)
+    private class PreparedTable {
+        final TableReader table;
+        final TableFormatter formatter;
+        final int[] rows; // the rows of the first chunk, or null if the table is not exported in chunks
+        final boolean bAllowPageBreak;
+        final boolean bIsInTable;
+        
+        PreparedTable(Element node, boolean bAllowPageBreak, boolean bIsInTable) {
+            this.bAllowPageBreak = bAllowPageBreak;
+            this.bIsInTable = bIsInTable;
+            table = ofr.getTableReader(node);
+            // Large spreadsheet tables may be exported in chunks, in which case we start with the first chunk
+            int nChunkSize = config.tableChunkSize();
+            if (ofr.isSpreadsheet() && nChunkSize>0 && config.useLongtable()
+            		&& table.getRowCount()-table.getFirstBodyRow()>nChunkSize) {
+            	int[] chunk = getChunk(table,table.getFirstBodyRow(),table.getFirstBodyRow()+nChunkSize);
+            	TableFormatter chunkFormatter = new TableFormatter(ofr,config,palette,table,chunk,bAllowPageBreak,bIsInTable);
+            	// Chunks are only supported for longtable
+            	if (chunkFormatter.isLongtable()) {
+            		formatter = chunkFormatter;
+            		rows = chunk;
+            		return;
+            	}
+            }
+            formatter = new TableFormatter(ofr,config,palette,table,bAllowPageBreak,bIsInTable);
+            rows = null;
+        }
+    }
+    
+    // Get the rows of a chunk: The head rows followed by the body rows in the range nFirstRow to nLastRow-1
+    private static int[] getChunk(TableReader table, int nFirstRow, int nLastRow) {
+        int nHeadRows = table.getFirstBodyRow();
+        int[] chunk = new int[nHeadRows+nLastRow-nFirstRow];
+        for (int i=0; i<nHeadRows; i++) {
+        	chunk[i] = i;
+        }
+        for (int i=nFirstRow; i<nLastRow; i++) {
+        	chunk[nHeadRows+i-nFirstRow] = i;
+        }
+        return chunk;
+    }
+	
     // Inner class to convert a single table
     private class SingleTableConverter {
         private TableReader table;
@@ -124,6 +280,8 @@ public class TableConverter extends ConverterHelper {
         private BeforeAfter baTable;
         private BeforeAfter baTableAlign;
         private RowType[] rowTypes;
+        private int[] rows; // the rows of the table to export, or null to export all rows
+        private boolean bContinued = false; // true if this is a continuation of a chunked table
         
         // Return the paragraph style of the first paragraph/heading within this block text
         private String getFirstParStyle(Element node) {
@@ -163,18 +321,17 @@ public class TableConverter extends ConverterHelper {
             this.caption = caption;
             this.bCaptionAbove = bCaptionAbove;
 
-            // Read the table
-            table = ofr.getTableReader(node);
+            // Read the table and get the formatter
+            PreparedTable prepared = getPreparedTable(node,!oc.isInMulticols(),oc.isInTable());
+            table = prepared.table;
             
             if (palette.getMathCv().handleDisplayEquation(table,ldp)) { return; }
 			
-            // Get formatter and update flags according to formatter
-            formatter = new TableFormatter(ofr,config,palette,table,!oc.isInMulticols(),oc.isInTable());
-            bContainsTables = true;
-            bNeedLongtable |= formatter.isLongtable();
-            bNeedSupertabular |= formatter.isSupertabular();
-            bNeedTabulary |= formatter.isTabulary();
-            bNeedColortbl |= formatter.isColortbl();
+            // Update flags according to formatter
+            formatter = prepared.formatter;
+            rows = prepared.rows;
+            boolean bChunked = rows!=null;
+            updateFlags();
 			
             // Update the context
             Context ic = (Context) oc.clone();
@@ -190,15 +347,52 @@ public class TableConverter extends ConverterHelper {
             baTableAlign = new BeforeAfter();
             formatter.applyTableStyle(baTable,baTableAlign,config.floatTables() && !ic.isInFrame() && !table.isSubTable());
             
+            if (bChunked) {
+                handleChunkedLongtable(ldp,oc,ic,config.tableChunkSize());
+                palette.getNoteCv().flushFootnotes(ldp,oc);
+                return;
+            }
+            
             // Identify the row types
-            rowTypes = new RowType[table.getRowCount()];
-            for (int nRow=0; nRow<table.getRowCount(); nRow++) {
+            identifyRowTypes();
+			
+            // Convert table
+            if (formatter.isSupertabular()) {
+                handleSupertabular(ldp,ic);
+            }
+            else if (formatter.isLongtable()) {
+                handleLongtable(ldp,ic);
+            }
+            else if (config.floatTables() && !ic.isInFrame() && !table.isSubTable()) {
+                handleTableFloat(ldp,ic);
+            }
+            else {
+                handleTabular(ldp,ic);
+            }
+			
+            // Insert any pending footnotes
+            palette.getNoteCv().flushFootnotes(ldp,oc);
+        }
+        
+        private void updateFlags() {
+            bContainsTables = true;
+            bNeedLongtable |= formatter.isLongtable();
+            bNeedSupertabular |= formatter.isSupertabular();
+            bNeedTabulary |= formatter.isTabulary();
+            bNeedColortbl |= formatter.isColortbl();
+        }
+        
+        private void identifyRowTypes() {
+            int nRowCount = rows!=null ? rows.length : table.getRowCount();
+            rowTypes = new RowType[nRowCount];
+            for (int i=0; i<nRowCount; i++) {
+            	int nRow = rows!=null ? rows[i] : i;
             	// First collect the row type as defined in the document
             	if (nRow<table.getFirstBodyRow()) {
-            		rowTypes[nRow] = RowType.HEAD;
+            		rowTypes[i] = RowType.HEAD;
             	}
             	else {
-            		rowTypes[nRow] = RowType.BODY;
+            		rowTypes[i] = RowType.BODY;
             	}
             	if (formatter.isLongtable() || formatter.isSupertabular()) {
             		// Then override with user defined row types where applicable
@@ -207,37 +401,20 @@ public class TableConverter extends ConverterHelper {
             		String sStyleName = getFirstParStyle(table.getCell(nRow, 0));
             		if (sStyleName!=null) {
             			if (sStyleName.equals(config.tableFirstHeadStyle())) {
-            				rowTypes[nRow] = RowType.FIRST_HEAD;
+            				rowTypes[i] = RowType.FIRST_HEAD;
             			}
             			else if (sStyleName.equals(config.tableHeadStyle())) {
-            				rowTypes[nRow] = RowType.HEAD;
+            				rowTypes[i] = RowType.HEAD;
             			}
             			else if (sStyleName.equals(config.tableFootStyle())) {
-            				rowTypes[nRow] = RowType.FOOT;
+            				rowTypes[i] = RowType.FOOT;
             			}
             			else if (sStyleName.equals(config.tableLastFootStyle())) {
-            				rowTypes[nRow] = RowType.LAST_FOOT;
+            				rowTypes[i] = RowType.LAST_FOOT;
             			}
             		}
             	}
             }
-			
-            // Convert table
-            if (formatter.isSupertabular()) {
-                handleSupertabular(ldp,ic);
-            }
-            else if (formatter.isLongtable()) {
-                handleLongtable(ldp,ic);
-            }
-            else if (config.floatTables() && !ic.isInFrame() && !table.isSubTable()) {
-                handleTableFloat(ldp,ic);
-            }
-            else {
-                handleTabular(ldp,ic);
-            }
-			
-            // Insert any pending footnotes
-            palette.getNoteCv().flushFootnotes(ldp,oc);
         }
 		
         private void handleSupertabular(LaTeXDocumentPortion ldp, Context oc) {
@@ -342,6 +519,37 @@ public class TableConverter extends ConverterHelper {
             ldp.nl().append(baTable.getAfter()).nl();
         }
 		
+        // Export the table as a sequence of longtables, each containing the head and a chunk of the body.
+        // Each chunk is formatted independently, thus only one chunk is held in memory at a time
+        // (if the body is streamed, each chunk is written to the temporary file when it is complete).
+        // The formatter for the first chunk has already been created
+        private void handleChunkedLongtable(LaTeXDocumentPortion ldp, Context oc, Context ic, int nChunkSize) {
+            Element tableCaption = caption;
+            int nRowCount = table.getRowCount();
+            int nFirstRow = table.getFirstBodyRow();
+            while (nFirstRow<nRowCount) {
+            	int nLastRow = Math.min(nFirstRow+nChunkSize, nRowCount);
+            	if (bContinued) {
+            		rows = getChunk(table, nFirstRow, nLastRow);
+            		formatter = new TableFormatter(ofr,config,palette,table,rows,!oc.isInMulticols(),oc.isInTable());
+            		updateFlags();
+            		baTable = new BeforeAfter();
+            		baTableAlign = new BeforeAfter();
+            		formatter.applyTableStyle(baTable,baTableAlign,false);
+            	}
+            	// The caption belongs to the first chunk if it's above, otherwise to the last chunk
+            	caption = (bCaptionAbove ? !bContinued : nLastRow==nRowCount) ? tableCaption : null;
+            	identifyRowTypes();
+            	handleLongtable(ldp,ic);
+            	// The chunk is complete, and may be written to the output if the body is streamed
+            	if (ldp instanceof StreamedPortion) {
+            		((StreamedPortion) ldp).flush();
+            	}
+            	bContinued = true;
+            	nFirstRow = nLastRow;
+            }
+        }
+		
         private void handleTableFloat(LaTeXDocumentPortion ldp, Context oc) {
             ldp.append("\\begin{table}");
             if (config.floatOptions().length()>0) {
@@ -405,13 +613,13 @@ public class TableConverter extends ConverterHelper {
 		
         private void handleHyperTarget(LaTeXDocumentPortion ldp) {
             // We may need a hyperlink target
-            if (!table.isSubTable()) {
+            if (!table.isSubTable() && !bContinued) {
                 palette.getFieldCv().addTarget(table.getTableName(),"|table",ldp);
             }
         }
 		
         private void handleRows(LaTeXDocumentPortion ldp, Context oc, RowType rowType, boolean bLineBefore, boolean bLineAfter) {
-            int nRowCount = table.getRowCount();
+            int nRowCount = rowTypes.length;
             int nColCount = table.getColCount();
             boolean bFirst = true;
             boolean bProtect = false; // Do we need to protect '['?
@@ -443,7 +651,7 @@ public class TableConverter extends ConverterHelper {
             		}   
             		int nCol = 0;
             		while (nCol<nColCount) {
-            			Element cell = (Element) table.getCell(nRow,nCol);
+            			Element cell = (Element) table.getCell(rows!=null ? rows[nRow] : nRow,nCol);
             			if (cell!=null) {
             				if (XMLString.TABLE_TABLE_CELL.equals(cell.getNodeName())) {
             					Context icCell = (Context) icRow.clone();
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  *  
- *  Version 2.0 (2018-06-19)
+ *  Version 2.0 (2026-10-18)
  *  
  */
  
@@ -41,8 +41,12 @@ import writer2latex.latex.util.Context;
  */
 public class TableFormatter extends ConverterHelper {
 
+    // The column width in OOo includes padding, which we subtract
+    private static final Length PADDING = Length.valueOf("-0.2cm");
+
     //private boolean bApplyCellFormat;
     private TableReader table;
+    private int[] rows; // the rows of the table to format, or null to format all rows
     private char[][] cAlign;
     private char[] cGlobalAlign;
     private boolean[][] bHBorder;
@@ -50,7 +54,7 @@ public class TableFormatter extends ConverterHelper {
     private boolean[] bGlobalVBorder;
     private String[] sRowColor;
     private String[][] sCellColor;
-    private String[] sColumnWidth; 
+    private Length[] columnWidth; 
     private boolean bIsLongtable;
     private boolean bIsSupertabular;
     private boolean bIsTabulary;
@@ -61,15 +65,27 @@ public class TableFormatter extends ConverterHelper {
      */
     public TableFormatter(OfficeReader ofr, LaTeXConfig config, ConverterPalette palette,
         TableReader table, boolean bAllowPageBreak, boolean bIsInTable) {
+        this(ofr,config,palette,table,null,bAllowPageBreak,bIsInTable);
+    }
+	
+    /** <p>Constructor: Create from a selection of the rows of a TableReader.</p>
+     *  <p>The rows of the formatter are numbered from 0, in the order given by the selection.
+     *  If a selection is given, the table is never simple, hence the column declarations
+     *  depend only on the column widths and borders.</p>
+     *  @param rows the indexes of the rows in the table, or null to use all rows
+     */
+    public TableFormatter(OfficeReader ofr, LaTeXConfig config, ConverterPalette palette,
+        TableReader table, int[] rows, boolean bAllowPageBreak, boolean bIsInTable) {
         super(ofr,config,palette);
         this.table = table;
+        this.rows = rows;
         //bApplyCellFormat = config.formatting()>=LaTeXConfig.CONVERT_MOST;
-        int nRowCount = table.getRowCount();
+        int nRowCount = rows!=null ? rows.length : table.getRowCount();
         int nColCount = table.getColCount();
         int nSimpleTableLimit = config.simpleTableLimit();
 		
         // Step 1: Collect alignment and identify simple tables
-        bIsSimple = true;
+        bIsSimple = rows==null;
         cAlign = new char[nRowCount][nColCount];
         cGlobalAlign = new char[nColCount];
         // Keep track of characters to be counted
@@ -80,7 +96,7 @@ public class TableFormatter extends ConverterHelper {
         for (int nCol=0; nCol<nColCount; nCol++) {
         	// Collect chars to be counted in this column
         	for (int nRow=0; nRow<nRowCount; nRow++) {
-        		Element cell = table.getCell(nRow, nCol);
+        		Element cell = getCell(nRow, nCol);
         		if (cell!=null && Misc.isElement(cell, XMLString.TABLE_TABLE_CELL)) {
         			// Now we're here: Collect alignment
         			if (OfficeReader.isSingleParagraph(cell)) {
@@ -99,7 +115,7 @@ public class TableFormatter extends ConverterHelper {
         				bIsSimple = false;
         			}
         			// Collect characters (the cell contains this many characters that should be distributed over that many columns)
-        			nPendingChars[nRow] = OfficeReader.getCharacterCount(cell);
+        			nPendingChars[nRow] = ofr.getTextIndex().getCharacterCount(cell);
         			nPendingColSpan[nRow] = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_COLUMNS_SPANNED), 1);
         		}
         	}
@@ -158,7 +174,7 @@ public class TableFormatter extends ConverterHelper {
         for (int nRow=0; nRow<nRowCount; nRow++) {
             int nCol = 0;
             while (nCol<nColCount) {
-                Node cell = table.getCell(nRow,nCol);
+                Node cell = getCell(nRow,nCol);
                 if (cell!=null) {
                 	String sStyleName = Misc.getAttribute(cell,XMLString.TABLE_STYLE_NAME);
                 	StyleWithProperties style = ofr.getCellStyle(sStyleName);
@@ -228,7 +244,7 @@ public class TableFormatter extends ConverterHelper {
 			
             // Row background
             for (int nRow=0; nRow<nRowCount; nRow++) {
-                StyleWithProperties rowStyle = ofr.getRowStyle(table.getRow(nRow).getStyleName());
+                StyleWithProperties rowStyle = ofr.getRowStyle(table.getRow(rows!=null ? rows[nRow] : nRow).getStyleName());
                 if (rowStyle!=null) {
                     sRowColor[nRow] = rowStyle.getProperty(XMLString.FO_BACKGROUND_COLOR);
                 }
@@ -243,7 +259,7 @@ public class TableFormatter extends ConverterHelper {
             // Cell background
             for (int nRow=0; nRow<nRowCount; nRow++) {
                 for (int nCol=0; nCol<nColCount; nCol++) {
-	                StyleWithProperties cellStyle = ofr.getCellStyle(Misc.getAttribute(table.getCell(nRow,nCol),XMLString.TABLE_STYLE_NAME));
+	                StyleWithProperties cellStyle = ofr.getCellStyle(Misc.getAttribute(getCell(nRow,nCol),XMLString.TABLE_STYLE_NAME));
                     if (cellStyle!=null) {
                         sCellColor[nRow][nCol] = cellStyle.getProperty(XMLString.FO_BACKGROUND_COLOR);
                         if (sCellColor[nRow][nCol]!=null) {
@@ -260,16 +276,16 @@ public class TableFormatter extends ConverterHelper {
         }
 		
         // Step 7: Read column style information
-        sColumnWidth = new String[nColCount];
+        columnWidth = new Length[nColCount];
         for (int nCol=0; nCol<nColCount; nCol++) {
             StyleWithProperties colStyle
                 = ofr.getColumnStyle(table.getCol(nCol).getStyleName());
             if (colStyle!=null) {
-                sColumnWidth[nCol]
-                    = colStyle.getProperty(XMLString.STYLE_COLUMN_WIDTH);
+                columnWidth[nCol]
+                    = Length.valueOf(colStyle.getProperty(XMLString.STYLE_COLUMN_WIDTH));
             }
-            if (sColumnWidth[nCol]==null) { // Emergency! should never happen!
-                sColumnWidth[nCol]="2cm";
+            if (columnWidth[nCol]==null) { // Emergency! should never happen!
+                columnWidth[nCol]=Length.valueOf("2cm");
             }
         }
 		
@@ -293,6 +309,11 @@ public class TableFormatter extends ConverterHelper {
 		
     }
     
+    // Get a cell from the table, using the row numbers of this formatter
+    private Element getCell(int nRow, int nCol) {
+        return table.getCell(rows!=null ? rows[nRow] : nRow, nCol);
+    }
+    
     @Override public void appendDeclarations(LaTeXPacman pacman, LaTeXDocumentPortion decl) {
 	}
 	
@@ -380,7 +401,7 @@ public class TableFormatter extends ConverterHelper {
             }
             else if (!bIsTabulary) {
                 // note: The column width in OOo includes padding, which we subtract
-                ba.add("m{"+Calc.add(sColumnWidth[nCol],"-0.2cm")+"}","");
+                ba.add("m{"+columnWidth[nCol].add(PADDING)+"}","");
             }
             else {
                 ba.add("J","");
@@ -439,7 +460,7 @@ public class TableFormatter extends ConverterHelper {
      *  In case of columnspan or different borders this will contain a \multicolumn command.
      */
     public void applyCellStyle(int nRow, int nCol, BeforeAfter ba, Context context) {
-        Node cell = table.getCell(nRow,nCol);
+        Node cell = getCell(nRow,nCol);
         int nColSpan = Misc.getPosInteger(Misc.getAttribute(cell,
                            XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1);
         // Construct column declaration as needed
@@ -447,11 +468,11 @@ public class TableFormatter extends ConverterHelper {
         boolean bNeedRight = bVBorder[nRow][nCol+1]!=bGlobalVBorder[nCol+1];
         boolean bNeedAlign = bIsSimple && cGlobalAlign[nCol]!=cAlign[nRow][nCol];
         // calculate column width
-        String sTotalColumnWidth = sColumnWidth[nCol];
+        Length totalColumnWidth = columnWidth[nCol];
         for (int i=nCol+1; i<nCol+nColSpan; i++) {
-             sTotalColumnWidth = Calc.add(sTotalColumnWidth,sColumnWidth[i]);
+             totalColumnWidth = totalColumnWidth.add(columnWidth[i]);
         }
-        sTotalColumnWidth = Calc.add(sTotalColumnWidth,"-0.2cm");
+        String sTotalColumnWidth = totalColumnWidth.add(PADDING).toString();
 
         if (bNeedAlign || bNeedLeft || bNeedRight || nColSpan>1) {
             ba.add("\\multicolumn{"+nColSpan+"}{","");
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-04-15) 
+ *  Version 2.0 (2026-10-18) 
  * 
  */
 
@@ -30,11 +30,12 @@ import java.util.Map;
 import java.util.Set;
 
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.helpers.DefaultHandler;
 
+import writer2latex.util.XMLParserPool;
+
 /** Helper class: SAX handler to parse symbols.xml from jar
  */
 public class UnicodeTableHandler extends DefaultHandler{
@@ -64,11 +65,15 @@ public class UnicodeTableHandler extends DefaultHandler{
     }
     
     public void parse() {
-        SAXParserFactory factory=SAXParserFactory.newInstance();
         InputStream is = this.getClass().getResourceAsStream("symbols.xml");
         try {
-            SAXParser saxParser=factory.newSAXParser();
-            saxParser.parse(is,this);
+            SAXParser saxParser=XMLParserPool.acquireSAXParser();
+            try {
+                saxParser.parse(is,this);
+            }
+            finally {
+                XMLParserPool.releaseSAXParser(saxParser);
+            }
         }
         catch (Throwable t){
 		    System.err.println("Oops - Unable to read symbols.xml");
@@ -0,0 +1,170 @@
+/************************************************************************
+ *
+ *  BeforeAfterCache.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.latex.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import writer2latex.office.StyleWithProperties;
+
+/** This class caches LaTeX code created from a style. The code is assumed to depend only on the style,
+ *  some flags given by the caller (e.g. declaration form or command form) and the font formatting of the
+ *  context: Font name, style, variant, weight, size and color plus the background color.
+ *  The conversion may change the font formatting of the context. The resulting font formatting is cached
+ *  as well, and restored when the cached code is used.
+ *  The cache counts the number of hits and misses.
+ */
+public class BeforeAfterCache {
+	
+	/** A key identifying a style, some flags and the font formatting of a context
+	 */
+	public static final class Key {
+		private final StyleWithProperties style;
+		private final int nFlags;
+		private final String[] sFormatting;
+		private final int nHash;
+		
+		private Key(StyleWithProperties style, int nFlags, Context context) {
+			this.style = style;
+			this.nFlags = nFlags;
+			this.sFormatting = getFormatting(context);
+			int nHash = 31*System.identityHashCode(style)+nFlags;
+			for (String s : sFormatting) {
+				nHash = 31*nHash+(s!=null ? s.hashCode() : 0);
+			}
+			this.nHash = nHash;
+		}
+		
+		@Override public boolean equals(Object object) {
+			if (!(object instanceof Key)) { return false; }
+			Key other = (Key) object;
+			if (style!=other.style || nFlags!=other.nFlags || nHash!=other.nHash) { return false; }
+			for (int i=0; i<sFormatting.length; i++) {
+				if (sFormatting[i]==null ? other.sFormatting[i]!=null : !sFormatting[i].equals(other.sFormatting[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		@Override public int hashCode() {
+			return nHash;
+		}
+	}
+	
+	// A cached result
+	private static final class Entry {
+		private final String sBefore;
+		private final String sAfter;
+		private final String[] sFormatting;
+		
+		private Entry(BeforeAfter ba, Context context) {
+			sBefore = ba.getBefore();
+			sAfter = ba.getAfter();
+			sFormatting = getFormatting(context);
+		}
+	}
+	
+	private Map<Key,Entry> cache = new HashMap<>();
+	private int nHits = 0;
+	private int nMisses = 0;
+	
+	/** Create a key for a style, some flags and a context. The key must be created before the
+	 *  context is changed by the conversion.
+	 * 
+	 * @param style the style
+	 * @param nFlags the flags
+	 * @param context the current context
+	 * @return the key
+	 */
+	public Key createKey(StyleWithProperties style, int nFlags, Context context) {
+		return new Key(style, nFlags, context);
+	}
+	
+	/** Apply cached code, if any. If the code is found, it is added to a <code>BeforeAfter</code>,
+	 *  and the font formatting of the context is updated
+	 * 
+	 * @param key the key of the code
+	 * @param ba the <code>BeforeAfter</code> to add the code to
+	 * @param context the context to update
+	 * @return true if the code was found in the cache
+	 */
+	public boolean apply(Key key, BeforeAfter ba, Context context) {
+		Entry entry = cache.get(key);
+		if (entry!=null) {
+			nHits++;
+			ba.add(entry.sBefore, entry.sAfter);
+			setFormatting(context, entry.sFormatting);
+			return true;
+		}
+		nMisses++;
+		return false;
+	}
+	
+	/** Add code to the cache
+	 * 
+	 * @param key the key of the code, created before the conversion
+	 * @param ba the code
+	 * @param context the context after the conversion
+	 */
+	public void put(Key key, BeforeAfter ba, Context context) {
+		cache.put(key, new Entry(ba, context));
+	}
+	
+	/** Get the number of times code was found in the cache
+	 * 
+	 * @return the number of hits
+	 */
+	public int getHitCount() {
+		return nHits;
+	}
+	
+	/** Get the number of times code was not found in the cache
+	 * 
+	 * @return the number of misses
+	 */
+	public int getMissCount() {
+		return nMisses;
+	}
+	
+	// Get the font formatting of a context
+	private static String[] getFormatting(Context context) {
+		return new String[] { context.getFontName(), context.getFontStyle(), context.getFontVariant(),
+				context.getFontWeight(), context.getFontSize(), context.getFontColor(), context.getBgColor() };
+	}
+	
+	// Set the font formatting of a context
+	private static void setFormatting(Context context, String[] sFormatting) {
+		context.setFontName(sFormatting[0]);
+		context.setFontStyle(sFormatting[1]);
+		context.setFontVariant(sFormatting[2]);
+		context.setFontWeight(sFormatting[3]);
+		context.setFontSize(sFormatting[4]);
+		context.setFontColor(sFormatting[5]);
+		context.setBgColor(sFormatting[6]);
+	}
+
+}
@@ -0,0 +1,216 @@
+/************************************************************************
+ *
+ *  ContentScanner.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.office;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import writer2latex.util.Misc;
+import writer2latex.util.SimpleXMLParser;
+
+/** This class scans the main body of a document for the elements which are collected by <code>OfficeReader</code>
+ *  before the conversion (paragraphs, headings, bookmarks, references, sequences, indexes etc.)
+ *  The scanner is normally attached to the parser as the content is parsed, hence the information is collected
+ *  without an additional traversal of the DOM tree. Alternatively an existing DOM tree can be scanned.
+ *  For each element of interest, the scanner records the context of the element: The current list style name,
+ *  list level, paragraph (outline) level and nesting level. The body of indexes is ignored.
+ */
+final class ContentScanner implements SimpleXMLParser.ElementListener {
+
+	// The elements of interest
+	private static final Set<String> names = new HashSet<String>();
+
+	static {
+		String[] sNames = { XMLString.TEXT_P, XMLString.TEXT_H, XMLString.TEXT_SEQUENCE, XMLString.TEXT_NOTE_REF,
+				XMLString.TEXT_REFERENCE_MARK, XMLString.TEXT_REFERENCE_MARK_START, XMLString.TEXT_REFERENCE_REF,
+				XMLString.TEXT_BOOKMARK, XMLString.TEXT_BOOKMARK_START, XMLString.TEXT_BOOKMARK_REF,
+				XMLString.TEXT_BIBLIOGRAPHY_MARK, XMLString.TEXT_SEQUENCE_REF, XMLString.TEXT_A, XMLString.OFFICE_FORMS,
+				XMLString.TEXT_TABLE_OF_CONTENT, XMLString.TEXT_TABLE_INDEX, XMLString.TEXT_ILLUSTRATION_INDEX };
+		for (String sName : sNames) {
+			names.add(sName);
+		}
+	}
+
+	/** An element of interest and its context
+	 */
+	static final class Item {
+		final Element element;
+		// True if this item represents the end of the element (only recorded for paragraphs)
+		final boolean bEnd;
+		final String sListStyleName;
+		final int nListLevel;
+		final int nParLevel;
+		final int nNestingLevel;
+
+		private Item(Element element, boolean bEnd, Context context) {
+			this.element = element;
+			this.bEnd = bEnd;
+			this.sListStyleName = context.sListStyleName;
+			this.nListLevel = context.nListLevel;
+			this.nParLevel = context.nParLevel;
+			this.nNestingLevel = context.nNestingLevel;
+		}
+	}
+
+	// The context for the children of an element
+	private static final class Context {
+		final Context parent;
+		final String sListStyleName;
+		final int nListLevel;
+		final int nParLevel;
+		final int nNestingLevel;
+
+		Context(Context parent, String sListStyleName, int nListLevel, int nParLevel, int nNestingLevel) {
+			this.parent = parent;
+			this.sListStyleName = sListStyleName;
+			this.nListLevel = nListLevel;
+			this.nParLevel = nParLevel;
+			this.nNestingLevel = nNestingLevel;
+		}
+	}
+
+	private List<Item> items = new ArrayList<Item>();
+	private Element firstImage = null;
+
+	// State of the scan
+	private boolean bInBody = false; // Inside the first office:body
+	private boolean bBodyDone = false; // The first office:body has been scanned
+	private int nIgnoreLevel = 0; // Depth inside the body of an index
+	private Context context = null;
+
+	/** Get the elements of interest in document order, each with its context. Paragraphs are
+	 *  represented twice, as the start and the end of the paragraph.
+	 *
+	 * @return the list of items
+	 */
+	List<Item> getItems() {
+		return items;
+	}
+
+	/** Get the first image in the document, defined as the first <code>draw:image</code> child
+	 *  of a <code>draw:frame</code>
+	 *
+	 * @return the image element, or null if there are no images
+	 */
+	Element getFirstImage() {
+		return firstImage;
+	}
+
+	/** Scan an existing DOM tree
+	 *
+	 * @param body the office:body element to scan
+	 */
+	void scan(Element body) {
+		startElement(body);
+		Node child = body.getFirstChild();
+		while (child!=null) {
+			if (child.getNodeType()==Node.ELEMENT_NODE) {
+				scan((Element) child);
+			}
+			child = child.getNextSibling();
+		}
+		endElement(body);
+	}
+
+	// Implement SimpleXMLParser.ElementListener
+
+	public void startElement(Element element) {
+		if (bBodyDone) { return; }
+		String sName = element.getTagName();
+		if (!bInBody) {
+			if (XMLString.OFFICE_BODY.equals(sName)) {
+				bInBody = true;
+				context = new Context(null,null,0,-1,0);
+			}
+			return;
+		}
+		if (nIgnoreLevel>0 || XMLString.TEXT_INDEX_BODY.equals(sName)) {
+			// The body of an index is always regenerated
+			nIgnoreLevel++;
+			return;
+		}
+
+		if (names.contains(sName)) {
+			items.add(new Item(element,false,context));
+		}
+
+		// Create the context for the children of this element
+		String sListStyleName = context.sListStyleName;
+		int nListLevel = context.nListLevel;
+		int nParLevel = context.nParLevel;
+		int nNestingLevel = context.nNestingLevel;
+		if (XMLString.TEXT_P.equals(sName)) {
+			nParLevel = 0;
+		}
+		else if (XMLString.TEXT_H.equals(sName)) {
+			nParLevel = Misc.getPosInteger(element.getAttribute(XMLString.TEXT_OUTLINE_LEVEL),1);
+		}
+		else if (XMLString.TEXT_LIST.equals(sName)) {
+			nNestingLevel++;
+			nListLevel++;
+			String sStyleName = Misc.getAttribute(element, XMLString.TEXT_STYLE_NAME);
+			if (sStyleName!=null) sListStyleName = sStyleName;
+		}
+		else if (XMLString.TEXT_NOTE.equals(sName) || XMLString.TABLE_TABLE.equals(sName)) {
+			// Various block elements; all resetting the list and par level
+			sListStyleName=null;
+			nListLevel=0;
+			nParLevel=-1;
+			nNestingLevel++;
+		}
+		else if (firstImage==null && XMLString.DRAW_FRAME.equals(sName)) {
+			nNestingLevel++;
+		}
+		else if (firstImage==null && XMLString.DRAW_IMAGE.equals(sName)
+				&& XMLString.DRAW_FRAME.equals(element.getParentNode().getNodeName())) {
+			// This may be an image (note that a replacement image for an object is OK by this definition)
+			firstImage = element;
+		}
+		context = new Context(context, sListStyleName, nListLevel, nParLevel, nNestingLevel);
+	}
+
+	public void endElement(Element element) {
+		if (!bInBody) { return; }
+		if (nIgnoreLevel>0) {
+			nIgnoreLevel--;
+			return;
+		}
+		context = context.parent;
+		if (context==null) { // End of the body
+			bInBody = false;
+			bBodyDone = true;
+		}
+		else if (XMLString.TEXT_P.equals(element.getTagName())) {
+			items.add(new Item(element,true,context));
+		}
+	}
+
+}
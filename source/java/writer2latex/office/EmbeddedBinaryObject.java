@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2012-03-28)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -34,6 +34,9 @@ public class EmbeddedBinaryObject extends EmbeddedObject {
     
     /** The object's binary representation. */
     private byte[] blob = null;
+    
+    /** The source of the binary representation, until it has been read */
+    private SimpleZipReader source = null;
         
     /**
      * Package private constructor for use when reading an object from a 
@@ -46,7 +49,8 @@ public class EmbeddedBinaryObject extends EmbeddedObject {
      */    
     protected EmbeddedBinaryObject(String sName, String sType, OfficeDocument doc, SimpleZipReader source) {
     	super(sName,sType,doc);
-    	blob = source.getEntry(sName);
+    	// Defer reading the data until required (objects which are not converted will never be read)
+    	this.source = source;
     }
     
     /** Get the binary data for this object
@@ -54,12 +58,17 @@ public class EmbeddedBinaryObject extends EmbeddedObject {
      * @return  A <code>byte</code> array containing the object's data.
      */
     public byte[] getBinaryData() {
+    	if (source!=null) {
+    		blob = source.getEntry(getName());
+    		source = null;
+    	}
         return blob;
     }    
     
     public void dispose() {
     	super.dispose();
     	blob = null;
+    	source = null;
     }
 
 }
@@ -19,19 +19,30 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2014-08-28)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.office;
 
 import java.io.IOException;
+import java.io.InputStream;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 
 import org.w3c.dom.Document;
 
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
+import writer2latex.util.SimpleXMLParser;
 import writer2latex.util.SimpleZipReader;
+import writer2latex.util.XMLParserPool;
 
 /** This class represents those embedded objects in an ODF document that have an XML representation:
  *  Formulas, charts, spreadsheets, text, drawings and presentations.              
@@ -40,14 +51,17 @@ import writer2latex.util.SimpleZipReader;
  */
 public class EmbeddedXMLObject extends EmbeddedObject {
     
-	// Byte entries for the XML streams of this object
-	private byte[] contentBytes = null;
-	private byte[] stylesBytes = null;
+	// The source of the XML streams of this object
+	private SimpleZipReader source = null;
 	
     // DOM trees representing the XML parts of this object
     protected Document contentDOM  = null;
     protected Document stylesDOM   = null;
     
+    // The StarMath annotation of a formula object, read without the DOM tree
+    private String sStarMath = null;
+    private boolean bStarMathRead = false;
+    
     /** Read an object from an ODF package document
      *
      * @param   sName   The name of the object.
@@ -56,9 +70,8 @@ public class EmbeddedXMLObject extends EmbeddedObject {
      */
     protected EmbeddedXMLObject(String sName, String sType, OfficeDocument doc, SimpleZipReader source) {              
         super(sName, sType, doc);
-        // Read the bytes, but defer parsing until required (at that point, the bytes are nullified)
-        contentBytes = source.getEntry(sName+"/"+OfficeDocument.CONTENTXML);
-        stylesBytes = source.getEntry(sName+"/"+OfficeDocument.STYLESXML);
+        // Defer reading and parsing until required
+        this.source = source;
     }  
     
     /**
@@ -71,12 +84,60 @@ public class EmbeddedXMLObject extends EmbeddedObject {
      */
     public Document getContentDOM() throws SAXException, IOException {
         if (contentDOM==null) {
-            contentDOM=getDOM(contentBytes);
-            contentBytes=null;
+            contentDOM=getDOM(OfficeDocument.CONTENTXML);
         }
         return contentDOM;
     }
     
+    /**
+     * Returns the StarMath annotation of a formula object. If possible, the annotation is read directly from
+     * "content.xml", stopping as soon as the annotation has been read. In this case no DOM tree is created.
+     * 
+     * @return the StarMath annotation, or null if the annotation cannot be read this way (in this case the
+     * content DOM should be used)
+     *
+     * @throws  SAXException    If any parser error occurs
+     * @throws  IOException     If any IO error occurs
+     */
+    public String getStarMathAnnotation() throws SAXException, IOException {
+    	if (!bStarMathRead) {
+    		bStarMathRead = true;
+    		// The stream can only be read if it is not needed for the DOM later
+    		if (contentDOM==null && source!=null && source.isRandomAccess()) {
+    			InputStream is = source.getInputStream(getName()+"/"+OfficeDocument.CONTENTXML);
+    			if (is!=null) {
+    				try {
+    					sStarMath = readStarMathAnnotation(is);
+    				}
+    				finally {
+    					is.close();
+    				}
+    			}
+    		}
+    	}
+    	return sStarMath;
+    }
+    
+    private static String readStarMathAnnotation(InputStream is) throws SAXException, IOException {
+    	AnnotationHandler handler = new AnnotationHandler();
+    	try {
+    		SAXParser parser = XMLParserPool.acquireSAXParser();
+    		try {
+    			parser.parse(is, handler);
+    		}
+    		catch (AnnotationHandler.Done e) {
+    			// Stopped parsing after the annotation
+    		}
+    		finally {
+    			XMLParserPool.releaseSAXParser(parser);
+    		}
+    	}
+    	catch (ParserConfigurationException e) {
+    		throw new SAXException(e);
+    	}
+    	return handler.getAnnotation();
+    }
+
     /**
      * Returns the style data for this embedded object.
      *
@@ -87,25 +148,83 @@ public class EmbeddedXMLObject extends EmbeddedObject {
      */       
     public Document getStylesDOM() throws SAXException, IOException {
         if (stylesDOM==null) {
-            stylesDOM = getDOM(stylesBytes);
-            stylesBytes=null;
+            stylesDOM = getDOM(OfficeDocument.STYLESXML);
         }
         return stylesDOM;
     }
     
-    private Document getDOM(byte[] data) throws SAXException, IOException {
-    	if (data!=null) {
-    		return OfficeDocument.parse(data);
+    private Document getDOM(String sFileName) throws SAXException, IOException {
+    	if (source!=null) {
+    		// Parse directly from the ZIP entry
+    		InputStream is = source.getInputStream(getName()+"/"+sFileName);
+    		if (is!=null) {
+    			try {
+    				return SimpleXMLParser.parse(is);
+    			}
+    			finally {
+    				is.close();
+    			}
+    		}
     	}
     	return null;
     }
     
     public void dispose() {
     	super.dispose();
-    	contentBytes = null;
-    	stylesBytes = null;
+    	source = null;
     	contentDOM  = null;
         stylesDOM   = null;
+        sStarMath = null;
+    }
+    
+    /** SAX handler to extract the text of the first annotation element in the first semantics element of a formula
+     *  (math/semantics/annotation, with or without the math namespace prefix). Parsing is stopped by throwing a
+     *  <code>Done</code> exception when the annotation has been read.
+     */
+    private static class AnnotationHandler extends DefaultHandler {
+    	@SuppressWarnings("serial")
+		static class Done extends SAXException {
+    	}
+    	
+    	private int nLevel = 0;
+    	private boolean bInSemantics = false;
+    	private boolean bInAnnotation = false;
+    	private StringBuilder buf = new StringBuilder();
+    	
+    	String getAnnotation() {
+    		return buf.length()>0 ? buf.toString() : null;
+    	}
+
+    	// We don't need - and in fact should avoid - any external entities
+    	@Override public InputSource resolveEntity(String publicID, String systemID) throws SAXException {
+    		return new InputSource(new StringReader(""));
+    	}
+    	
+    	@Override public void startElement(String nameSpace, String localName, String qName, Attributes attributes)
+    			throws SAXException {
+    		nLevel++;
+    		if (nLevel==1) {
+    			if (!XMLString.MATH.equals(qName) && !XMLString.MATH_MATH.equals(qName)) { throw new Done(); }
+    		}
+    		else if (nLevel==2 && !bInSemantics) {
+    			bInSemantics = XMLString.SEMANTICS.equals(qName) || XMLString.MATH_SEMANTICS.equals(qName);
+    		}
+    		else if (nLevel==2) { // The first semantics element has ended without an annotation
+    			throw new Done();
+    		}
+    		else if (nLevel==3 && bInSemantics) {
+    			bInAnnotation = XMLString.ANNOTATION.equals(qName) || XMLString.MATH_ANNOTATION.equals(qName);
+    		}
+    	}
+    	
+    	@Override public void endElement(String nameSpace, String localName, String qName) throws SAXException {
+    		if (bInAnnotation && nLevel==3) { throw new Done(); }
+    		nLevel--;
+    	}
+
+    	@Override public void characters(char[] characters, int nStart, int nLength) {
+    		if (bInAnnotation) { buf.append(characters, nStart, nLength); }
+    	}
     }
 
 }
\ No newline at end of file
@@ -19,28 +19,40 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2014-08-28)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.office;
 
 import java.io.BufferedInputStream;
-import java.io.InputStream;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.HashMap;
-
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
+import writer2latex.util.Misc;
+import writer2latex.util.NameTable;
 import writer2latex.util.SimpleXMLParser;
 import writer2latex.util.SimpleZipReader;
 
@@ -59,6 +71,11 @@ public class OfficeDocument {
     private final static String MANIFEST_MEDIA_TYPE = "manifest:media-type";
     private final static String MANIFEST_FULL_PATH = "manifest:full-path";
     
+    // Make the constants in XMLString the canonical instances of the names in the parsed DOM trees
+    static {
+        NameTable.getInstance().addNames(XMLString.class);
+    }
+
     // Identify package format
     private boolean bIsPackageFormat = false;
 
@@ -74,9 +91,28 @@ public class OfficeDocument {
 	/** DOM <code>Document</code> of META-INF/manifest.xml. */
 	private Document manifestDoc = null;
 
+	/** The elements collected from the body of content.xml while parsing, or null if not available */
+	private ContentScanner contentScanner = null;
+
 	/** Collection to keep track of the embedded objects in the document. */
 	private Map<String, EmbeddedObject> embeddedObjects = null;
 	
+	/** The ZIP reader providing the contents of the embedded objects (package format only). */
+	private SimpleZipReader zipReader = null;
+	
+	/** The executor used to parse the XML streams of a package document, or null to parse sequentially. */
+	private Executor executor = null;
+	
+	/** Define an <code>Executor</code> to use for parsing the XML streams of a package document
+	 *  (content, styles, meta data and manifest) in parallel. The result does not depend on the executor.
+	 *  When reading from a stream rather than a file, the XML streams must be inflated to memory before parsing.
+	 *  
+	 *  @param executor the <code>Executor</code>, or null to parse the streams sequentially (this is the default)
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
 	/** Package or flat format? 
 	 *  @return true if the document is in package format, false if it's flat XML
 	 */
@@ -84,6 +120,23 @@ public class OfficeDocument {
 		return bIsPackageFormat;
 	}
 
+	/**
+	 * Returns the scanner which collected elements from the body while content.xml was parsed
+	 * 
+	 * @return the scanner, or null if the document was not parsed by this class or the scanner has been released
+	 */
+	ContentScanner getContentScanner() {
+		return contentScanner;
+	}
+	
+	/**
+	 * Release the scanner which collected elements from the body. This should be called when the
+	 * collected elements have been used, as the scanner refers to elements in the content DOM.
+	 */
+	void releaseContentScanner() {
+		contentScanner = null;
+	}
+
 	/**
 	 *  Return a DOM <code>Document</code> object of the content.xml file.
 	 *  file. Note that a content DOM is not created when the constructor
@@ -185,7 +238,14 @@ public class OfficeDocument {
 	 * @param dom the DOM tree
 	 */
 	public void read(org.w3c.dom.Document dom) {
+		try {
+			close();
+		}
+		catch (IOException e) {
+			// Nothing to do if we fail to close a previous document
+		}
 		contentDoc = dom;
+		contentScanner = null;
 		styleDoc = null;
 		metaDoc = null;
 		manifestDoc = null;
@@ -219,56 +279,227 @@ public class OfficeDocument {
 			readFlat(inbuf);
 		}
 	}
-
-	private void readZip(InputStream is) throws IOException {
-		SimpleZipReader zip = new SimpleZipReader();
-		zip.read(is);
-
-		byte contentBytes[] = zip.getEntry(CONTENTXML);
-		if (contentBytes == null) {
-			throw new IOException("Entry content.xml not found in file");
-		}
+	
+	/**
+	 *  Read the Office <code>Document</code> from the given <code>File</code>.
+	 *  Performs simple type detection to determine package or flat format.
+	 *  A package is opened for random access, and the embedded objects (e.g. images) are only read
+	 *  when requested. Hence the file is kept open until <code>close</code> is called.
+	 *
+	 *  @param  file  Office document <code>File</code>.
+	 *
+	 *  @throws  IOException  If any I/O error occurs.
+	 */
+	public void read(File file) throws IOException {
+		read(file.toPath());
+	}
+	
+	/**
+	 *  Read the Office <code>Document</code> from the given <code>Path</code>.
+	 *  Performs simple type detection to determine package or flat format.
+	 *  A package on the default file system is opened for random access, and the embedded objects
+	 *  (e.g. images) are only read when requested. Hence the file is kept open until <code>close</code> is called.
+	 *
+	 *  @param  path  Office document <code>Path</code>.
+	 *
+	 *  @throws  IOException  If any I/O error occurs.
+	 */
+	public void read(Path path) throws IOException {
+		SeekableByteChannel channel = Files.newByteChannel(path);
 		try {
-			contentDoc = parse(contentBytes);
-		} catch (SAXException ex) {
-			throw new IOException(ex);
-		}
-
-		byte styleBytes[] = zip.getEntry(STYLESXML);
-		if (styleBytes != null) {
-			try {
-				styleDoc = parse(styleBytes);
-			} catch (SAXException ex) {
-				throw new IOException(ex);
+			if (isZip(channel) && path.getFileSystem()==FileSystems.getDefault()) {
+				channel.close();
+				SimpleZipReader zip = new SimpleZipReader();
+				zip.read(path.toFile());
+				try {
+					readZip(zip);
+				}
+				catch (IOException e) {
+					zip.close();
+					throw e;
+				}
+			}
+			else {
+				read(channel);
 			}
 		}
-
-		byte metaBytes[] = zip.getEntry(METAXML);
-		if (metaBytes != null) {
-			try {
-				metaDoc = parse(metaBytes);
-			} catch (SAXException ex) {
-				throw new IOException(ex);
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 *  Read the Office <code>Document</code> from the given <code>SeekableByteChannel</code>, starting
+	 *  at the current position of the channel.
+	 *  Performs simple type detection to determine package or flat format by peeking at the first bytes
+	 *  of the channel. The channel is read sequentially without further buffering, and is not closed.
+	 *
+	 *  @param  channel  Office document <code>SeekableByteChannel</code>.
+	 *
+	 *  @throws  IOException  If any I/O error occurs.
+	 */
+	public void read(SeekableByteChannel channel) throws IOException {
+		// Do not close the channel when the stream is closed
+		InputStream is = new FilterInputStream(Channels.newInputStream(channel)) {
+			@Override public void close() {
 			}
+		};
+		if (isZip(channel)) {
+			readZip(is);
 		}
+		else {
+			readFlat(is);
+		}
+	}
+	
+	// Detect the zip format from the first 4 bytes of a channel, leaving the position of the channel unchanged
+	private static boolean isZip(SeekableByteChannel channel) throws IOException {
+		long nPosition = channel.position();
+		ByteBuffer buf = ByteBuffer.allocate(4);
+		while (buf.hasRemaining() && channel.read(buf)>=0) {
+			// Read until we have 4 bytes or reach the end of the channel
+		}
+		channel.position(nPosition);
+		return MIMETypes.ZIP.equals(MIMETypes.getMagicMIMEType(buf.array()));
+	}
+	
+	/** Release the resources held by this document, if any. If the document was read from a package
+	 *  file, the file is closed. Embedded objects which have not yet been read cannot be read after this.
+	 * 
+	 *  @throws  IOException  If any I/O error occurs.
+	 */
+	public void close() throws IOException {
+		if (zipReader!=null) {
+			SimpleZipReader zip = zipReader;
+			zipReader = null;
+			zip.close();
+		}
+	}
 
-		byte manifestBytes[] = zip.getEntry(MANIFESTXML);
-		if (manifestBytes != null) {
-			try {
-				manifestDoc = parse(manifestBytes);
-			} catch (SAXException ex) {
-				throw new IOException(ex);
+	private void readZip(InputStream is) throws IOException {
+		close();
+		
+		// Parse the XML streams directly from the ZIP stream, all other entries are stored in memory
+		contentScanner = new ContentScanner();
+		final Map<String,Future<Document>> docs = new HashMap<String,Future<Document>>();
+		SimpleZipReader zip = new SimpleZipReader();
+		zip.read(is, new SimpleZipReader.EntryHandler() {
+			public boolean handleEntry(String sName, InputStream entryStream) throws IOException {
+				if (CONTENTXML.equals(sName) || STYLESXML.equals(sName) || METAXML.equals(sName) || MANIFESTXML.equals(sName)) {
+					docs.put(sName, parseTask(entryStream, CONTENTXML.equals(sName) ? contentScanner : null));
+					return true;
+				}
+				return false;
 			}
+		});
+		if (!docs.containsKey(CONTENTXML)) {
+			throw new IOException("Entry content.xml not found in file");
 		}
+		contentDoc = join(docs.get(CONTENTXML));
+		styleDoc = join(docs.get(STYLESXML));
+		metaDoc = join(docs.get(METAXML));
+		manifestDoc = join(docs.get(MANIFESTXML));
 		
 		bIsPackageFormat = true;
+		zipReader = zip;
 		getEmbeddedObjects(zip);
 	}
 
+	private void readZip(SimpleZipReader zip) throws IOException {
+		close();
+
+		if (!zip.hasEntry(CONTENTXML)) {
+			throw new IOException("Entry content.xml not found in file");
+		}
+		// The streams are independent, so they may be parsed concurrently
+		contentScanner = new ContentScanner();
+		Future<Document> content = parseTask(zip, CONTENTXML, contentScanner);
+		Future<Document> style = parseTask(zip, STYLESXML, null);
+		Future<Document> meta = parseTask(zip, METAXML, null);
+		Future<Document> manifest = parseTask(zip, MANIFESTXML, null);
+		contentDoc = join(content);
+		styleDoc = join(style);
+		metaDoc = join(meta);
+		manifestDoc = join(manifest);
+		
+		bIsPackageFormat = true;
+		zipReader = zip;
+		getEmbeddedObjects(zip);
+	}
+	
+	// Create a task to parse an entry of the ZIP file directly from the inflater
+	private Future<Document> parseTask(final SimpleZipReader zip, final String sName,
+			final SimpleXMLParser.ElementListener listener) {
+		return execute(new FutureTask<Document>(new Callable<Document>() {
+			public Document call() throws IOException {
+				InputStream is = zip.getInputStream(sName);
+				if (is!=null) {
+					try {
+						return parse(is, listener);
+					}
+					finally {
+						is.close();
+					}
+				}
+				return null;
+			}
+		}));
+	}
+	
+	// Create a task to parse an entry of a ZIP stream. If we have an executor, the stream must be
+	// read before it is passed to the task, otherwise the stream is parsed directly from the inflater
+	private Future<Document> parseTask(InputStream is, final SimpleXMLParser.ElementListener listener) throws IOException {
+		final InputStream source = executor!=null ? new ByteArrayInputStream(Misc.inputStreamToByteArray(is)) : is;
+		return execute(new FutureTask<Document>(new Callable<Document>() {
+			public Document call() throws IOException {
+				return parse(source, listener);
+			}
+		}));
+	}
+	
+	// Run a task using the executor, or in the current thread if we don't have an executor
+	private FutureTask<Document> execute(FutureTask<Document> task) {
+		if (executor!=null) {
+			executor.execute(task);
+		}
+		else {
+			task.run();
+		}
+		return task;
+	}
+	
+	// Wait for a parse task to complete and return the result
+	private static Document join(Future<Document> task) throws IOException {
+		if (task==null) {
+			return null;
+		}
+		try {
+			return task.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while parsing the document");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
 
 	private void readFlat(InputStream is) throws IOException {
+		close();
+		contentScanner = new ContentScanner();
 		try {
-			contentDoc = SimpleXMLParser.parse(is);
+			contentDoc = SimpleXMLParser.parse(is, contentScanner);
 		} catch (SAXException e) {
 			throw new IOException(e);
 		}
@@ -280,30 +511,26 @@ public class OfficeDocument {
 	}
 
 	/**
-	 *  Parse given <code>byte</code> array into a DOM
-	 *  <code>Document</code> object using the
-	 *  <code>DocumentBuilder</code> object.
+	 *  Parse given <code>InputStream</code> into a DOM <code>Document</code> object.
+	 *  The stream is parsed as it is read, hence no intermediate copy of the XML is created.
 	 *
-	 *  @param  builder  <code>DocumentBuilder</code> object for parsing.
-	 *  @param  bytes    <code>byte</code> array for parsing.
+	 *  @param  is    <code>InputStream</code> for parsing.
 	 *
 	 *  @return  Resulting DOM <code>Document</code> object.
 	 *
-	 *  @throws  SAXException  If any parsing error occurs.
+	 *  @throws  IOException  If any I/O or parsing error occurs.
 	 */
-	static Document parse(byte bytes[]) throws SAXException, IOException {
-		SAXParserFactory factory=SAXParserFactory.newInstance();
-		SimpleXMLParser handler = new SimpleXMLParser();
+	static Document parse(InputStream is) throws IOException {
+		return parse(is, null);
+	}
+
+	// Parse an input stream, notifying a listener as the elements are added to the DOM tree
+	private static Document parse(InputStream is, SimpleXMLParser.ElementListener listener) throws IOException {
 		try {
-			SAXParser saxParser = factory.newSAXParser();
-			saxParser.parse(new ByteArrayInputStream(bytes),handler);
-			return handler.getDOM();
-		}
-		catch (ParserConfigurationException e) {
-			System.err.println("Oops - failed to get XML parser!?");
-			e.printStackTrace();
+			return SimpleXMLParser.parse(is, listener);
+		} catch (SAXException e) {
+			throw new IOException(e);
 		}
-		return null;
 	}
 
 }
@@ -19,16 +19,18 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-08-17)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.office;
 
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -223,18 +225,22 @@ public class OfficeReader {
     }
 
     public static String getTextContent(Node node) {
-        String s = "";
+        StringBuilder buf = new StringBuilder();
+        collectTextContent(node,buf);
+        return buf.toString();
+    }
+    
+    private static void collectTextContent(Node node, StringBuilder buf) {
         Node child = node.getFirstChild();
         while (child!=null) {
             if (child.getNodeType()==Node.ELEMENT_NODE) {
-                s += getTextContent(child);
+                collectTextContent(child,buf);
             }
             else if (child.getNodeType()==Node.TEXT_NODE) {
-                s += child.getNodeValue();
+                buf.append(child.getNodeValue());
             }
             child = child.getNextSibling();
         }
-        return s;
     }
 	
     /** Return the next character in logical order
@@ -355,6 +361,14 @@ public class OfficeReader {
     // The main content element
     private Element content = null;
     
+    // Index of the text content
+    private TextIndex textIndex = new TextIndex();
+    
+    // Table readers which are in use (access must be synchronized on the map)
+    private Map<Element,TableReader> tableReaders = new IdentityHashMap<Element,TableReader>();
+    private int nTableReaderBuildCount = 0;
+    private int nTableReaderHitCount = 0;
+    
     // The first image in the document
     private Element firstImage = null;
     
@@ -760,17 +774,70 @@ public class OfficeReader {
         return content;
     }
 	
+    /** <p>Get the index of the text content of this document. The index provides faster
+     *  versions of <code>getCharacterCount</code>, <code>isWhitespaceContent</code> and
+     *  <code>getNextChar</code> for content which is queried repeatedly.</p>
+     *  @return the index
+     */
+    public TextIndex getTextIndex() { return textIndex; }
+	
     /** <p>Get the forms belonging to this document.</p>
      *  @return a <code>FormsReader</code> representing the forms
      */
     public FormsReader getForms() { return forms; }
 	
-    /** <p>Read a table from a table:table node</p>
+    /** <p>Read a table from a table:table node. The table reader is cached until it is released,
+     *  hence repeated requests for the same table will return the same object.</p>
      *  @param node the table:table Element node
      *  @return a <code>TableReader</code> object representing the table
      */
     public TableReader getTableReader(Element node) {
-        return new TableReader(this,node);
+        synchronized (tableReaders) {
+            TableReader table = tableReaders.get(node);
+            if (table!=null) {
+                nTableReaderHitCount++;
+                return table;
+            }
+        }
+        // Read the table outside the lock; if another thread has read the same table meanwhile, we use that
+        TableReader table = new TableReader(this,node);
+        synchronized (tableReaders) {
+            nTableReaderBuildCount++;
+            TableReader other = tableReaders.get(node);
+            if (other!=null) {
+                return other;
+            }
+            tableReaders.put(node, table);
+            return table;
+        }
+    }
+    
+    /** <p>Release the cached <code>TableReader</code> for a table, typically when the table has been converted.
+     *  A later request for the table will read the table again.</p>
+     *  @param node the table:table Element node
+     */
+    public void releaseTableReader(Element node) {
+        synchronized (tableReaders) {
+            tableReaders.remove(node);
+        }
+    }
+    
+    /** <p>Get the number of times a <code>TableReader</code> has been created</p>
+     *  @return the number of table readers created by <code>getTableReader</code>
+     */
+    public int getTableReaderBuildCount() {
+        synchronized (tableReaders) {
+            return nTableReaderBuildCount;
+        }
+    }
+    
+    /** <p>Get the number of requests for a <code>TableReader</code>, which were served by the cache</p>
+     *  @return the number of cache hits in <code>getTableReader</code>
+     */
+    public int getTableReaderHitCount() {
+        synchronized (tableReaders) {
+            return nTableReaderHitCount;
+        }
     }
     
     /** Get the very first image in this document, if any 
@@ -785,8 +852,21 @@ public class OfficeReader {
     public OfficeReader(OfficeDocument oooDoc, boolean bAllParagraphsAreSoft) {
         this.oooDoc = oooDoc;
         loadStylesFromDOM(oooDoc.getStyleDOM(),oooDoc.getContentDOM(),bAllParagraphsAreSoft);
+        resolveStyles();
         loadContentFromDOM(oooDoc.getContentDOM());
     }
+    
+    // Precompute the inherited and absolute properties of all styles, now that all styles are loaded
+    private void resolveStyles() {
+    	OfficeStyleFamily[] families = { text, par, section, table, column, row, cell, frame, presentation,
+    			drawingPage, pageLayout };
+    	for (OfficeStyleFamily family : families) {
+    		Enumeration<OfficeStyle> styles = family.getStylesEnumeration();
+    		while (styles.hasMoreElements()) {
+    			((StyleWithProperties) styles.nextElement()).resolveProperties();
+    		}
+    	}
+    }
 
     ///////////////////////////////////////////////////////////////////////////
     // Helpers
@@ -1028,7 +1108,18 @@ public class OfficeReader {
                 }
             }                
 
-            traverseContent(body,null,0,-1,0);
+            // Collect information from the body. Usually the elements have been collected while parsing,
+            // otherwise we have to scan the DOM tree now
+            ContentScanner scanner = oooDoc.getContentScanner();
+            if (scanner==null) {
+            	scanner = new ContentScanner();
+            	scanner.scan(body);
+            }
+            firstImage = scanner.getFirstImage();
+            for (ContentScanner.Item item : scanner.getItems()) {
+            	collectContent(item.element, item.bEnd, item.sListStyleName, item.nListLevel, item.nParLevel, item.nNestingLevel);
+            }
+            oooDoc.releaseContentScanner();
 
             if (sAutoFigureSequenceName!=null) {
                 addFigureSequenceName(sAutoFigureSequenceName);
@@ -1044,12 +1135,28 @@ public class OfficeReader {
         
     }
 	
-    private void traverseContent(Element node, String sListStyleName, int nListLevel, int nParLevel, int nNestingLevel) {
-        // Handle this node first
-    	
+    // Collect information from an element in the body, given the context of the element
+    private void collectContent(Element node, boolean bEnd, String sListStyleName, int nListLevel, int nParLevel, int nNestingLevel) {
         String sName = node.getTagName();
         
-        if (sName.equals(XMLString.TEXT_P)) {
+        if (bEnd) {
+            // Collect automatic captions sequences
+            // Use OOo defaults: Captions have style names Illustration and Table resp.
+            if ((sAutoFigureSequenceName==null || sAutoTableSequenceName==null) && sName.equals(XMLString.TEXT_P)) {
+                String sStyleName = getParStyles().getDisplayName(node.getAttribute(XMLString.TEXT_STYLE_NAME)); 
+                if (sAutoFigureSequenceName==null) {
+                    if ("Illustration".equals(sStyleName)) {
+                        sAutoFigureSequenceName = getSequenceName(node);
+                    }
+                }
+                if (sAutoTableSequenceName==null) {
+                    if ("Table".equals(sStyleName)) {
+                        sAutoTableSequenceName = getSequenceName(node);
+                    }
+                }
+            }
+        }
+        else if (sName.equals(XMLString.TEXT_P)) {
         	// Cast votes for parskip and parindent if not inside tables, lists, frames or footnotes
         	if (nNestingLevel==0) {
 	        	StyleWithProperties style = getParStyle(node.getAttribute(XMLString.TEXT_STYLE_NAME));
@@ -1077,13 +1184,11 @@ public class OfficeReader {
 		        }
         	}
 
-            nParLevel=0;
         	optimize(node);
             //collectMasterPage(getParStyle(node.getAttribute(XMLString.TEXT_STYLE_NAME)));
         }
         else if (sName.equals(XMLString.TEXT_H)) {
         	int nLevel = Misc.getPosInteger(node.getAttribute(XMLString.TEXT_OUTLINE_LEVEL),1);
-        	nParLevel = nLevel;
             StyleWithProperties style = getParStyle(node.getAttribute(XMLString.TEXT_STYLE_NAME));
             //collectMasterPage(style);
             if (1<=nLevel && nLevel<=10 && heading[nLevel]==null) {
@@ -1096,19 +1201,6 @@ public class OfficeReader {
             }
             optimize(node);
         }
-        else if (sName.equals(XMLString.TEXT_LIST)) {
-        	nNestingLevel++;
-        	nListLevel++;
-        	String sStyleName = Misc.getAttribute(node, XMLString.TEXT_STYLE_NAME);
-        	if (sStyleName!=null) sListStyleName = sStyleName;
-        }
-        else if (sName.equals(XMLString.TEXT_NOTE) || sName.equals(XMLString.TABLE_TABLE)) {
-        	// Various block elements; all resetting the list and par level
-        	sListStyleName=null;
-        	nListLevel=0;
-        	nParLevel=-1;
-        	nNestingLevel++;
-        }
         else if (sName.equals(XMLString.TEXT_SEQUENCE)) {
             String sSeqName = Misc.getAttribute(node,XMLString.TEXT_NAME);
             String sRefName = Misc.getAttribute(node,XMLString.TEXT_REF_NAME);
@@ -1178,38 +1270,6 @@ public class OfficeReader {
             }
         }
         // todo: other indexes
-        else if (firstImage==null && sName.equals(XMLString.DRAW_FRAME)) {
-        	// This may be an image (note that a replacement image for an object is OK by this definition)
-        	Element image = Misc.getChildByTagName(node, XMLString.DRAW_IMAGE);
-        	if (image!=null) { firstImage=image; }
-        	nNestingLevel++;
-        }
-		
-        // Traverse the children (except body of indexes, which is always regenerated)
-        Node child = node.getFirstChild();
-        while (child!=null) {
-            if (child.getNodeType()==Node.ELEMENT_NODE && !child.getNodeName().equals(XMLString.TEXT_INDEX_BODY)) {
-                traverseContent((Element) child, sListStyleName, nListLevel, nParLevel, nNestingLevel);
-            }
-            child = child.getNextSibling();
-        }
-
-        // Collect automatic captions sequences
-        // Use OOo defaults: Captions have style names Illustration and Table resp.
-        if ((sAutoFigureSequenceName==null || sAutoTableSequenceName==null) && sName.equals(XMLString.TEXT_P)) {
-            String sStyleName = getParStyles().getDisplayName(node.getAttribute(XMLString.TEXT_STYLE_NAME)); 
-            if (sAutoFigureSequenceName==null) {
-                if ("Illustration".equals(sStyleName)) {
-                    sAutoFigureSequenceName = getSequenceName(node);
-                }
-            }
-            if (sAutoTableSequenceName==null) {
-                if ("Table".equals(sStyleName)) {
-                    sAutoTableSequenceName = getSequenceName(node);
-                }
-            }
-        }
-       
     }
 	
     private void collectRefName(Set<String> ref, Element node) {
@@ -19,23 +19,26 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2014-08-27)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.office;
 
 import org.w3c.dom.Node;
-import java.util.Hashtable;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import writer2latex.util.Misc;
 
 /** Container class representing a style family in OOo */
 public class OfficeStyleFamily {
-    private Hashtable<String, OfficeStyle> styles = new Hashtable<String, OfficeStyle>();
+    private Map<String, OfficeStyle> styles = new LinkedHashMap<String, OfficeStyle>();
     private Class<? extends OfficeStyle> styleClass;
 	
-    private Hashtable<String, String> displayNames = new Hashtable<String, String>();
+    private Map<String, String> displayNames = new HashMap<String, String>();
 	
     private OfficeStyle defaultStyle = null;
 
@@ -97,11 +100,11 @@ public class OfficeStyleFamily {
         return style.getDisplayName();
     }
 
-    /** Get all named styles in the family (ie. excluding the default style)
+    /** Get all named styles in the family (ie. excluding the default style) in the order they were loaded
      *  @return an enumeration of all styles represented by OfficeStyle objects
      */
     public Enumeration<OfficeStyle> getStylesEnumeration(){
-        return styles.elements();
+        return Collections.enumeration(styles.values());
     }
 	
     /** Load a style from a DOM representation
@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-07-22)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -27,24 +27,32 @@ package writer2latex.office;
 
 import org.w3c.dom.Node;
 import org.w3c.dom.NamedNodeMap;
-import java.util.Hashtable;
-import java.util.Map;
+import java.util.List;
+
+import writer2latex.util.NameMap;
 
 /** Class representing a set of style properties in an ODF document (actually this
     is simply the set of attributes of an element)</p> 
   */
 public class PropertySet {
-    private Map<String, String> properties = new Hashtable<>();
+    private NameMap properties = new NameMap();
     private String sName;
 
     public PropertySet() {
-        properties = new Hashtable<String, String>();
         sName="";
     }
     
     public int getSize() {
     	return properties.size();
     }
+    
+    /** Get the names of all properties in this property set
+     * 
+     * @return a list of property names
+     */
+    public List<String> getPropertyNames() {
+    	return properties.getNames();
+    }
 	
     public String getProperty(String sPropName) {
         if (sPropName!=null) {
@@ -89,7 +97,7 @@ public class PropertySet {
 	
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (String sKey : properties.keySet()) {
+        for (String sKey : properties.getNames()) {
             String sValue = properties.get(sKey);
             sb.append(sKey).append("=").append(sValue).append(" ");
         }
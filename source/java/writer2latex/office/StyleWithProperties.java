@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  *  
- *  Version 2.0 (2018-07-22)
+ *  Version 2.0 (2026-10-18)
  */
  
 package writer2latex.office;
@@ -30,7 +30,9 @@ import java.util.Map;
 import org.w3c.dom.Node;
 
 import writer2latex.util.Calc;
+import writer2latex.util.Length;
 import writer2latex.util.Misc;
+import writer2latex.util.NameMap;
 
 /** <p> Class representing an ODF style which contains a style:properties element </p> 
   */
@@ -76,6 +78,15 @@ public class StyleWithProperties extends OfficeStyle {
     private boolean bHasFootnoteSep = false;
     private PropertySet footnoteSep = new PropertySet();
     
+    // Shared map for families without properties (it is never modified)
+    private static final NameMap EMPTY_MAP = new NameMap();
+
+    // Property values with inheritance and relative values resolved, or null if not resolved yet
+    private NameMap[] inheritedProperties = null;
+    private NameMap[] absoluteProperties = null;
+    private String sAbsoluteFontSize = null;
+    private boolean bResolving = false;
+    
     public StyleWithProperties() {
         for (int i=0; i<COUNT; i++) {
             properties[i] = new PropertySet();
@@ -180,6 +191,63 @@ public class StyleWithProperties extends OfficeStyle {
         }
     }
 	
+    /** Resolve the inherited and absolute values of all properties of this style. After this, the methods
+     *  <code>getProperty</code> (with inheritance), <code>getAbsoluteProperty</code> and
+     *  <code>getAbsoluteFontSize</code> return precomputed values without walking the parent styles.
+     *  This method must be called after all styles in the family (and the default style) have been loaded,
+     *  and the styles must not be changed afterwards.
+     */
+    void resolveProperties() {
+    	if (inheritedProperties!=null || bResolving) { return; }
+    	bResolving = true;
+    	StyleWithProperties parentStyle = null;
+    	if (getParentName()!=null) {
+    		parentStyle = (StyleWithProperties) family.getStyle(getParentName());
+    		if (parentStyle!=null) {
+    			parentStyle.resolveProperties();
+    			if (parentStyle.inheritedProperties==null) {
+    				// Cyclic inheritance; give up
+    				bResolving = false;
+    				return;
+    			}
+    		}
+    	}
+    	StyleWithProperties defaultStyle = getFamily()!=null ? (StyleWithProperties) getFamily().getDefaultStyle() : null;
+    	NameMap[] inherited = new NameMap[COUNT];
+    	NameMap[] absolute = new NameMap[COUNT];
+    	for (int i=0; i<COUNT; i++) {
+    		// First the values which are not defined by this style
+    		if (parentStyle!=null) {
+    			inherited[i] = parentStyle.inheritedProperties[i];
+    			absolute[i] = parentStyle.absoluteProperties[i];
+    		}
+    		else {
+    			inherited[i] = EMPTY_MAP;
+    			absolute[i] = EMPTY_MAP;
+    			if (getParentName()==null && defaultStyle!=null && defaultStyle.properties[i].getSize()>0) {
+    				absolute[i] = new NameMap();
+    				for (String sName : defaultStyle.properties[i].getPropertyNames()) {
+    					String sValue = defaultStyle.getProperty(i,sName,false);
+    					if (sValue!=null) { absolute[i].put(sName,sValue); }
+    				}
+    			}
+    		}
+    		// Then the values defined by this style
+    		if (properties[i].getSize()>0) {
+    			inherited[i] = new NameMap(inherited[i]);
+    			absolute[i] = new NameMap(absolute[i]);
+    			for (String sName : properties[i].getPropertyNames()) {
+    				inherited[i].put(sName, Calc.truncateLength(properties[i].getProperty(sName)));
+    				absolute[i].put(sName, computeAbsoluteProperty(i,sName));
+    			}
+    		}
+    	}
+    	sAbsoluteFontSize = computeAbsoluteFontSize();
+    	inheritedProperties = inherited;
+    	absoluteProperties = absolute;
+    	bResolving = false;
+    }
+	
     /** Get a property value
      * 
      * @param nIndex the property type
@@ -189,6 +257,9 @@ public class StyleWithProperties extends OfficeStyle {
      */
     public String getProperty(int nIndex, String sName, boolean bInherit) {
     	if (0<=nIndex && nIndex<=COUNT) {
+    		if (bInherit && inheritedProperties!=null) {
+    			return inheritedProperties[nIndex].get(sName);
+    		}
 	        if (properties[nIndex].containsProperty(sName)) {
 	            String sValue = properties[nIndex].getProperty(sName);
 	            return Calc.truncateLength(sValue);
@@ -284,6 +355,14 @@ public class StyleWithProperties extends OfficeStyle {
      * @return the absolute value, or null if the property is not set
      */
     public String getAbsoluteProperty(int nIndex, String sProperty){
+    	if (absoluteProperties!=null && 0<=nIndex && nIndex<=COUNT) {
+    		return absoluteProperties[nIndex].get(sProperty);
+    	}
+    	return computeAbsoluteProperty(nIndex, sProperty);
+    }
+    
+    // Resolve the absolute value of a property using the parent style(s)
+    private String computeAbsoluteProperty(int nIndex, String sProperty){
     	if (0<=nIndex && nIndex<=COUNT) {
 	        if (properties[nIndex].containsProperty(sProperty)){
 	            String sValue=(String) properties[nIndex].getProperty(sProperty);
@@ -292,12 +371,12 @@ public class StyleWithProperties extends OfficeStyle {
 		                = (StyleWithProperties) family.getStyle(getParentName());
 	                if (parentStyle!=null) {
 	                    String sParentValue = parentStyle.getAbsoluteProperty(nIndex,sProperty);
-	                    if (sParentValue!=null) { return Calc.multiply(sValue,sParentValue); }
+	                    if (sParentValue!=null) { return Length.valueOf(sParentValue).multiply(sValue).toString(); }
 	                }
 	                else if (getFamily()!=null && getFamily().getDefaultStyle()!=null) {
 	                    StyleWithProperties style = (StyleWithProperties) getFamily().getDefaultStyle();
 	                    String sDefaultValue=(String) style.getProperty(nIndex,sProperty,false);
-	                    if (sValue !=null) { return Calc.multiply(sValue,sDefaultValue); }
+	                    if (sValue !=null) { return Length.valueOf(sDefaultValue).multiply(sValue).toString(); }
 	                }
 	            }
 	            else {
@@ -374,12 +453,19 @@ public class StyleWithProperties extends OfficeStyle {
      * @return the absolute value, or null if the property is not set
      */
     public String getAbsoluteFontSize(){
+    	if (inheritedProperties!=null) {
+    		return sAbsoluteFontSize;
+    	}
+    	return computeAbsoluteFontSize();
+    }
+    
+    private String computeAbsoluteFontSize(){
         if (properties[TEXT].containsProperty(XMLString.STYLE_FONT_SIZE_REL)) {
         	// Size specified as e.g. +3pt or -2pt
         	String sValue= properties[TEXT].getProperty(XMLString.STYLE_FONT_SIZE_REL);
         	String sParentValue = getAbsoluteParentFontSize();
        		if (sParentValue!=null) {
-       			return Calc.add(Calc.truncateLength(sValue),sParentValue);
+       			return Length.valueOf(Calc.truncateLength(sValue)).add(Length.valueOf(sParentValue)).toString();
        		}
         }
         else if (properties[TEXT].containsProperty(XMLString.FO_FONT_SIZE)) {
@@ -388,7 +474,7 @@ public class StyleWithProperties extends OfficeStyle {
             	// Size specified as a percentage
                 String sParentValue = getAbsoluteParentFontSize();
                 if (sParentValue!=null) {
-                	return Calc.multiply(sValue,sParentValue);
+                	return Length.valueOf(sParentValue).multiply(sValue).toString();
                 }
             }
             else {
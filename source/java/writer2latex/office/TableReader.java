@@ -4,7 +4,7 @@
  *
  *  Copyright: 2002-2014 by Henrik Just
  *  
- *  Version 1.4 (2014-09-05)
+ *  Version 2.0 (2026-10-18)
  *
  *  This file is part of Writer2LaTeX.
  *  
@@ -24,37 +24,116 @@
  
 package writer2latex.office;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
-import writer2latex.util.Calc;
+import writer2latex.util.Length;
 import writer2latex.util.Misc;
 
 /**
  * <p> This class reads a table from a table:table or table:sub-table element
  * and presents it as an n by m grid. In addition it gives access to the
  * absolute and relative widths of tables, columns and cells.</p>
+ * <p> Repeated rows, columns and cells are not expanded, but are presented
+ * as virtual rows, columns and cells. Hence the memory usage depends on the
+ * content rather than the size of the grid.</p>
  */
 public class TableReader {
     //private OfficeReader ofr;
     private Element tableNode;
-    private LinkedList<TableLine> cols = new LinkedList<TableLine>();
-    private LinkedList<TableLine> rows = new LinkedList<TableLine>();
-    private LinkedList<LinkedList<Element>> cells = new LinkedList<LinkedList<Element>>();
+    // Repeated rows, columns and cells are stored as runs
+    private Runs<TableLine> cols = new Runs<TableLine>();
+    private Runs<Row> rows = new Runs<Row>();
     private int nMaxCols = 1; // real number of columns (count to last non-empty)
     private int nMaxRows = 1; // real number of rows (count to last non-empty)
-    private String[] sColWidth;
-    private String[] sRelColWidth;
+    private Length[] colWidth; // indexed by column run
+    private String[] sRelColWidth; // indexed by column run
     private String sTableWidth;
     private String sRelTableWidth;
     private Vector<TableRange> printRanges;
     
     private int nRowCount;
     private int nEmptyRowCount;
+    
+    // A sequence of values, where repeated values are stored as runs
+    private static final class Runs<T> {
+    	private List<T> values = new ArrayList<T>();
+    	private int[] nStarts = new int[8]; // the index of the first value in each run
+    	private int nSize = 0;
+    	
+    	// Add a value a number of times
+    	void add(T value, int nRepeat) {
+    		int nRuns = values.size();
+    		if (nRuns==nStarts.length) {
+    			int[] nNewStarts = new int[2*nRuns];
+    			System.arraycopy(nStarts, 0, nNewStarts, 0, nRuns);
+    			nStarts = nNewStarts;
+    		}
+    		values.add(value);
+    		nStarts[nRuns] = nSize;
+    		nSize += nRepeat;
+    	}
+    	
+    	// Get the number of values (counting repetitions)
+    	int size() {
+    		return nSize;
+    	}
+    	
+    	// Get the number of runs
+    	int getRunCount() {
+    		return values.size();
+    	}
+    	
+    	// Get the index of the run containing a value, or -1 if the index is out of range
+    	int getRun(int nIndex) {
+    		if (nIndex<0 || nIndex>=nSize) { return -1; }
+    		int nLow = 0;
+    		int nHigh = values.size()-1;
+    		while (nLow<nHigh) {
+    			int nMid = (nLow+nHigh+1)>>>1;
+    			if (nStarts[nMid]<=nIndex) { nLow = nMid; }
+    			else { nHigh = nMid-1; }
+    		}
+    		return nLow;
+    	}
+    	
+    	// Get the index of the first value in a run
+    	int getRunStart(int nRun) {
+    		return nStarts[nRun];
+    	}
+    	
+    	// Get the index after the last value in a run
+    	int getRunEnd(int nRun) {
+    		return nRun+1<values.size() ? nStarts[nRun+1] : nSize;
+    	}
+    	
+    	// Get the value of a run
+    	T getRunValue(int nRun) {
+    		return values.get(nRun);
+    	}
+    	
+    	// Get a value, or null if the index is out of range
+    	T get(int nIndex) {
+    		int nRun = getRun(nIndex);
+    		return nRun>=0 ? values.get(nRun) : null;
+    	}
+    }
+    
+    // A row and its cells
+    private static final class Row {
+    	final TableLine line;
+    	final Runs<Element> cells;
+    	
+    	Row(TableLine line, Runs<Element> cells) {
+    		this.line = line;
+    		this.cells = cells;
+    	}
+    }
 	
     /**
      * <p> The constructor reads a table from a table:table or table:sub-table
@@ -110,56 +189,58 @@ public class TableReader {
             sRelTableWidth = tableStyle.getProperty(XMLString.STYLE_REL_WIDTH);
         }
 		
-        // Determine column widths
+        // Determine column widths (the width is the same for all columns in a run)
         int nCols = cols.size();
-        sColWidth = new String[nCols];
-        sRelColWidth = new String[nCols];
-        int[] nRelColWidth = new int[nCols];
+        int nColRuns = cols.getRunCount();
+        colWidth = new Length[nColRuns];
+        sRelColWidth = new String[nColRuns];
+        int[] nRelColWidth = new int[nColRuns];
         boolean bHasRelWidth=true; // set to false if some columns does not have a relative width set
         int nColSum = 0;
-        for (int nCol=0; nCol<nCols; nCol++) {
-            StyleWithProperties style = ofr.getColumnStyle(cols.get(nCol).getStyleName());
+        for (int nRun=0; nRun<nColRuns; nRun++) {
+            StyleWithProperties style = ofr.getColumnStyle(cols.getRunValue(nRun).getStyleName());
             if (style!=null) {
-                sColWidth[nCol] = style.getProperty(XMLString.STYLE_COLUMN_WIDTH);
+                colWidth[nRun] = Length.valueOf(style.getProperty(XMLString.STYLE_COLUMN_WIDTH));
                 String s = style.getProperty(XMLString.STYLE_REL_COLUMN_WIDTH);
                 if (s!=null && s.endsWith("*")) {
-                    nRelColWidth[nCol] = Misc.getPosInteger(s.substring(0,s.length()-1),1);
+                    nRelColWidth[nRun] = Misc.getPosInteger(s.substring(0,s.length()-1),1);
                 }
             }
-            if (sColWidth[nCol]==null) { sColWidth[nCol] = "2cm"; } // emergency, should not happen
-            if (nRelColWidth[nCol]==0) { bHasRelWidth = false; }
-            nColSum += nRelColWidth[nCol];
+            if (colWidth[nRun]==null) { colWidth[nRun] = Length.valueOf("2cm"); } // emergency, should not happen
+            if (nRelColWidth[nRun]==0) { bHasRelWidth = false; }
+            nColSum += nRelColWidth[nRun]*(cols.getRunEnd(nRun)-cols.getRunStart(nRun));
         }
-        for (int nCol=0; nCol<nCols; nCol++) {
+        Length tableWidth = Length.valueOf(sTableWidth);
+        for (int nRun=0; nRun<nColRuns; nRun++) {
             if (bHasRelWidth) {
-                sRelColWidth[nCol] = (100.0F*nRelColWidth[nCol]/nColSum)+"%";
+                sRelColWidth[nRun] = (100.0F*nRelColWidth[nRun]/nColSum)+"%";
             }
-            else if (sTableWidth!=null){
+            else if (tableWidth!=null){
             	// Calculate the relative column width from the absolute column widths
             	// This may not add up to exactly 100%, but we will live with that
-                sRelColWidth[nCol] = Calc.divide(sColWidth[nCol], sTableWidth, true);
+                sRelColWidth[nRun] = colWidth[nRun].divide(tableWidth, true);
             }
             else {
             	// The table has not width, distribute the columns evenly
-            	sRelColWidth[nCol] = Double.toString(100.0/nCols)+"%";
+            	sRelColWidth[nRun] = Double.toString(100.0/nCols)+"%";
             }
         }
 
         // Now determine the actual number of rows and columns
         // (Calc exports a lot of empty rows at columns bottom/right)
-        int nRows = cells.size();
-        for (int nRow=0; nRow<nRows; nRow++) {
-        	LinkedList<Element> row = cells.get(nRow);
-            nCols = row.size();
-            int nMaxCol = 0;
-            int nMaxRow = 0;
-            for (int nCol=0; nCol<nCols; nCol++) {
-                Element cell = (Element) row.get(nCol);
+        // Within a run, the maximum is attained at the last row or column
+        int nRowRuns = rows.getRunCount();
+        for (int nRowRun=0; nRowRun<nRowRuns; nRowRun++) {
+        	int nLastRow = rows.getRunEnd(nRowRun)-1;
+        	Runs<Element> row = rows.getRunValue(nRowRun).cells;
+            int nCellRuns = row.getRunCount();
+            for (int nCellRun=0; nCellRun<nCellRuns; nCellRun++) {
+                Element cell = row.getRunValue(nCellRun);
                 if (cell.hasChildNodes()) {
-                    nMaxRow = nRow + Misc.getPosInteger(cell.getAttribute(
+                    int nMaxRow = nLastRow + Misc.getPosInteger(cell.getAttribute(
                             XMLString.TABLE_NUMBER_ROWS_SPANNED),1);
                     if (nMaxRow>nMaxRows) { nMaxRows = nMaxRow; }
-                    nMaxCol = nCol + Misc.getPosInteger(cell.getAttribute(
+                    int nMaxCol = row.getRunEnd(nCellRun)-1 + Misc.getPosInteger(cell.getAttribute(
                             XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1);
                     if (nMaxCol>nMaxCols) { nMaxCols = nMaxCol; }
                 }
@@ -185,9 +266,7 @@ public class TableReader {
     private void readTableColumn(Node node, boolean bHeader, boolean bDisplay) {
         int nRepeat = Misc.getPosInteger(Misc.getAttribute(node,
                                          XMLString.TABLE_NUMBER_COLUMNS_REPEATED),1);
-        while (nRepeat-->0) {
-            cols.add(new TableLine(node,bHeader,bDisplay));
-        }
+        cols.add(new TableLine(node,bHeader,bDisplay),nRepeat);
     }
 
     private void readTableColumns(Node node, boolean bHeader, boolean bDisplay) {
@@ -237,35 +316,32 @@ public class TableReader {
     private void readTableRow(Node node, boolean bHeader, boolean bDisplay) {
         int nRepeat = Misc.getPosInteger(Misc.getAttribute(node,
                                          XMLString.TABLE_NUMBER_ROWS_REPEATED),1);
-        while (nRepeat-->0  && rows.size()<nRowCount) {
-            rows.add(new TableLine(node,bHeader,bDisplay));
+        if (nRepeat<=0 || rows.size()>=nRowCount) { return; }
+        TableLine line = new TableLine(node,bHeader,bDisplay);
 
-            // Read the cells in the row
-            LinkedList<Element> row = new LinkedList<Element>();
-            if (node.hasChildNodes()) {
-                NodeList nl = node.getChildNodes();
-                int nLen = nl.getLength();
-                for (int i = 0; i < nLen; i++) {
-                    Node child = nl.item(i);
-                    if (child.getNodeType() == Node.ELEMENT_NODE) {
-                        Element cell = (Element) child;
-                        String sName = cell.getTagName();
-                        if (sName.equals(XMLString.TABLE_TABLE_CELL)) {
-                            int nColRepeat = Misc.getPosInteger(cell.getAttribute(
-                                             XMLString.TABLE_NUMBER_COLUMNS_REPEATED),1);
-                            while (nColRepeat-->0) { row.add(cell); }
-                        }
-                        else if (sName.equals(XMLString.TABLE_COVERED_TABLE_CELL)) {
-                            int nColRepeat = Misc.getPosInteger(cell.getAttribute(
-                                             XMLString.TABLE_NUMBER_COLUMNS_REPEATED),1);
-                            while (nColRepeat-->0) { row.add(cell); }
-                        }
+        // Read the cells in the row
+        Runs<Element> row = new Runs<Element>();
+        if (node.hasChildNodes()) {
+            NodeList nl = node.getChildNodes();
+            int nLen = nl.getLength();
+            for (int i = 0; i < nLen; i++) {
+                Node child = nl.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    Element cell = (Element) child;
+                    String sName = cell.getTagName();
+                    if (sName.equals(XMLString.TABLE_TABLE_CELL)) {
+                        row.add(cell, Misc.getPosInteger(cell.getAttribute(
+                                XMLString.TABLE_NUMBER_COLUMNS_REPEATED),1));
+                    }
+                    else if (sName.equals(XMLString.TABLE_COVERED_TABLE_CELL)) {
+                        row.add(cell, Misc.getPosInteger(cell.getAttribute(
+                                XMLString.TABLE_NUMBER_COLUMNS_REPEATED),1));
                     }
                 }
             }
-            cells.add(row);
         }
-
+        // Add the row the required number of times (but not beyond the row count)
+        rows.add(new Row(line,row), Math.min(nRepeat, nRowCount-rows.size()));
     }
 
     private void readTableRows(Node node, boolean bHeader, boolean bDisplay) {
@@ -426,13 +502,13 @@ public class TableReader {
     public int getMaxRowCount() { return nMaxRows; }
 
     public int getFirstBodyRow() {
-        int nRows = rows.size();
-        for (int nRow=0; nRow<nRows; nRow++) {
-            if (!getRow(nRow).isHeader()) {
-                return nRow;
+        int nRuns = rows.getRunCount();
+        for (int nRun=0; nRun<nRuns; nRun++) {
+            if (!rows.getRunValue(nRun).line.isHeader()) {
+                return rows.getRunStart(nRun);
             }
         }
-        return nRows; // no body rows!
+        return rows.size(); // no body rows!
     }
 
     public int getColCount() { return cols.size(); }
@@ -440,18 +516,53 @@ public class TableReader {
     public int getMaxColCount() { return nMaxCols; }
 
     public String getColumnWidth(int nCol) {
-        return 0<=nCol && nCol<=cols.size() ? sColWidth[nCol] : null;
+        int nRun = cols.getRun(nCol);
+        return nRun>=0 ? colWidth[nRun].toString() : null;
     }
 	
     public String getRelColumnWidth(int nCol) {
-        return 0<=nCol && nCol<=cols.size() ? sRelColWidth[nCol] : null;
+        int nRun = cols.getRun(nCol);
+        return nRun>=0 ? sRelColWidth[nRun] : null;
     }
 	
     public Element getCell(int nRow, int nCol) {
-        if (nRow<0 || nRow>=cells.size()) { return null; }
-        LinkedList<Element> row = cells.get(nRow);
-        if (nCol<0 || nCol>=row.size()) { return null; }
-        return (Element) row.get(nCol);
+        Row row = rows.get(nRow);
+        return row!=null ? row.cells.get(nCol) : null;
+    }
+    
+    /** Get the number of rows, starting with a given row, which are repetitions of the same row
+     * 
+     * @param nRow the index of the row
+     * @return the number of repeated rows, or 0 if the row does not exist
+     */
+    public int getRowRepeat(int nRow) {
+        int nRun = rows.getRun(nRow);
+        return nRun>=0 ? rows.getRunEnd(nRun)-nRow : 0;
+    }
+    
+    /** Get the number of columns, starting with a given column, which are repetitions of the same column
+     * 
+     * @param nCol the index of the column
+     * @return the number of repeated columns, or 0 if the column does not exist
+     */
+    public int getColRepeat(int nCol) {
+        int nRun = cols.getRun(nCol);
+        return nRun>=0 ? cols.getRunEnd(nRun)-nCol : 0;
+    }
+	
+    /** Get the number of cells in a row, starting with a given column, which are repetitions of the same cell
+     * 
+     * @param nRow the index of the row
+     * @param nCol the index of the column
+     * @return the number of repeated cells, or 0 if the cell does not exist
+     */
+    public int getCellRepeat(int nRow, int nCol) {
+        Row row = rows.get(nRow);
+        if (row!=null) {
+            int nRun = row.cells.getRun(nCol);
+            if (nRun>=0) { return row.cells.getRunEnd(nRun)-nCol; }
+        }
+        return 0;
     }
 	
     public String getCellStyleName(int nRow, int nCol) {
@@ -469,20 +580,19 @@ public class TableReader {
         Element cell = (Element) getCell(nRow,nCol);
         if (cell==null) { return null; }
         int nCols = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1);
-        String sWidth = sColWidth[nCol];
+        Length width = colWidth[cols.getRun(nCol)];
         for (int i=nCol+1; i<nCol+nCols; i++) {
-            sWidth = Calc.add(sWidth,sColWidth[i]);
+            width = width.add(colWidth[cols.getRun(i)]);
         }
-        return sWidth;
+        return width.toString();
     }
 	
     public TableLine getRow(int nRow) {
-        if (nRow<0 || nRow>=rows.size()) { return null; }
-        return rows.get(nRow);
+        Row row = rows.get(nRow);
+        return row!=null ? row.line : null;
     }
 	
     public TableLine getCol(int nCol) {
-        if (nCol<0 || nCol>=cols.size()) { return null; }
         return cols.get(nCol);
     }
 	
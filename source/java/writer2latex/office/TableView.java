@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.2 (2011-04-20) 
+ *  Version 2.0 (2026-10-18) 
  *
  */
 
@@ -32,162 +32,342 @@ import writer2latex.util.Misc;
 /**
  *  This class represents a view of a <code>TableRange</code>. A view provides
  *  read access to the range using a simple grid model.
+ *  Repeated rows, columns and cells of the table are not expanded in the view:
+ *  The visible rows and columns are stored as runs of consecutive rows and columns in the
+ *  original table, and identical cells in a run share the same <code>CellView</code>.
  */
 public class TableView {
 
     private TableReader reader;
     private TableRange range;
 	
-    // The size of the view (visible part of the range)
-    private int nRowCount;
-    private int nColCount;
-
     // Map view row/col index to original index
-    private int[] nRowMap;
-    private int[] nColMap;
+    private Lines rows = new Lines();
+    private Lines cols = new Lines();
+
+    // The cells in the view, stored as bands of view rows with identical cells
+    private int[] nBandStarts = new int[8]; // the index of the first view row in each band
+    private Band[] bands = new Band[8];
+    private int nBandCount = 0;
 
-    // The cells in the view 
-    private CellView[][] cells;
+    // The visible rows or columns of a view, stored as runs of consecutive rows or columns in the original table
+    private static final class Lines {
+        private int[] nViewStarts = new int[8]; // the view index of the first line in each run
+        private int[] nStarts = new int[8]; // the original index of the first line in each run
+        private int nRuns = 0;
+        private int nSize = 0;
+    	
+        // Add a number of consecutive lines, starting with a given original index
+        void add(int nStart, int nRepeat) {
+            if (nRuns>0 && nStarts[nRuns-1]+nSize-nViewStarts[nRuns-1]==nStart) {
+                // Continues the last run
+                nSize += nRepeat;
+                return;
+            }
+            if (nRuns==nStarts.length) {
+                nViewStarts = grow(nViewStarts);
+                nStarts = grow(nStarts);
+            }
+            nViewStarts[nRuns] = nSize;
+            nStarts[nRuns] = nStart;
+            nRuns++;
+            nSize += nRepeat;
+        }
+    	
+        // Get the number of lines in the view
+        int size() {
+            return nSize;
+        }
+    	
+        // Get the original index of a line in the view
+        int getOriginal(int nIndex) {
+            int nRun = find(nViewStarts,nRuns,nIndex);
+            return nStarts[nRun]+nIndex-nViewStarts[nRun];
+        }
+    	
+        // Get the number of lines, starting with a given line in the view, which are consecutive in the original table
+        int getConsecutive(int nIndex) {
+            int nRun = find(nViewStarts,nRuns,nIndex);
+            return (nRun+1<nRuns ? nViewStarts[nRun+1] : nSize)-nIndex;
+        }
+    	
+        // Get the first original index which belongs to a given line in the view. Invisible lines
+        // (and lines before the view) belong to the following visible line.
+        int getFirstOriginal(int nIndex) {
+            return nIndex>0 ? getOriginal(nIndex-1)+1 : 0;
+        }
+    	
+        // Get the number of lines in the view with an original index smaller than a given index
+        int countBefore(int nOriginal) {
+            int nRun = find(nStarts,nRuns,nOriginal-1);
+            if (nRun<0) { return 0; }
+            int nEnd = nRun+1<nRuns ? nViewStarts[nRun+1] : nSize;
+            return Math.min(nViewStarts[nRun]+nOriginal-nStarts[nRun], nEnd);
+        }
+    }
+    
+    // A band of view rows, which have identical cells. The cells are stored as segments of view columns,
+    // where each segment shares the same cell view. The original row and column of the cell view are
+    // the original row and column of the first row in the band and the first column in the segment.
+    private static final class Band {
+        private int[] nSegmentStarts = new int[8]; // the index of the first view column in each segment
+        private CellView[] cells = new CellView[8];
+        private int nSegmentCount = 0;
+    	
+        // Add a segment
+        void add(int nStart, CellView cell) {
+            if (nSegmentCount==nSegmentStarts.length) {
+                nSegmentStarts = grow(nSegmentStarts);
+                CellView[] newCells = new CellView[2*nSegmentCount];
+                System.arraycopy(cells, 0, newCells, 0, nSegmentCount);
+                cells = newCells;
+            }
+            nSegmentStarts[nSegmentCount] = nStart;
+            cells[nSegmentCount++] = cell;
+        }
+    	
+        // Get the segment containing a view column
+        int getSegment(int nCol) {
+            return find(nSegmentStarts,nSegmentCount,nCol);
+        }
+    }
 
     public TableView(TableReader reader, TableRange range) {
         this.reader = reader;
         this.range = range;
 		
-        // Count visible rows & cols in this range
-        nRowCount = 0;
-        for (int nRow=range.getFirstRow(); nRow<=range.getLastRow(); nRow++) {
-            if (isVisibleRow(nRow)) { nRowCount++; }
+        // Collect the visible rows & cols in this range
+        // (repeated rows & cols share visibility, hence we can add a repetition in one step)
+        for (int nRow=range.getFirstRow(); nRow<=range.getLastRow(); ) {
+            int nRepeat = Math.max(1, Math.min(reader.getRowRepeat(nRow), range.getLastRow()-nRow+1));
+            if (isVisibleRow(nRow)) { rows.add(nRow, nRepeat); }
+            nRow+=nRepeat;
         }
-        nColCount = 0;
-        for (int nCol=range.getFirstCol(); nCol<=range.getLastCol(); nCol++) {
-            if (isVisibleCol(nCol)) { nColCount++; }
+        for (int nCol=range.getFirstCol(); nCol<=range.getLastCol(); ) {
+            int nRepeat = Math.max(1, Math.min(reader.getColRepeat(nCol), range.getLastCol()-nCol+1));
+            if (isVisibleCol(nCol)) { cols.add(nCol, nRepeat); }
+            nCol+=nRepeat;
         }
 		
-        // Fill the row & col maps
-        nRowMap = new int[nRowCount];
-        int nRealRow = range.getFirstRow();
-        for (int nRow=0; nRow<nRowCount; nRow++) {
-            // Skip invisible rows
-            while (!isVisibleRow(nRealRow)) { nRealRow++; }
-            nRowMap[nRow] = nRealRow++;
-        }
-        nColMap = new int[nColCount];
-        int nRealCol = range.getFirstCol();
-        for (int nCol=0; nCol<nColCount; nCol++) {
-            // Skip invisible cols
-            while (!isVisibleCol(nRealCol)) { nRealCol++; }
-            nColMap[nCol] = nRealCol++;
+        // Fill the cell views
+        // A cell in the original table is placed in the view at the first visible row and col at or after
+        // the cell (cells before the range and in invisible rows and cols are relocated if they span into the view).
+        // Repeated rows with a single original row each share the cells if no cell spans several rows.
+        int nRowCount = rows.size();
+        for (int nRow=0; nRow<nRowCount; ) {
+            int nOriginalRow = rows.getOriginal(nRow);
+            int nFirstRow = rows.getFirstOriginal(nRow);
+            int nRepeat = 1;
+            if (nFirstRow==nOriginalRow && !hasRowSpan(nOriginalRow)) {
+                nRepeat = Math.min(rows.getConsecutive(nRow), reader.getRowRepeat(nOriginalRow));
+            }
+            addBand(nRow, createBand(nRow, sampleRows(nFirstRow, nOriginalRow)));
+            nRow+=nRepeat;
         }
-		
-        // Initialize the cell views
-        cells = new CellView[nRowCount][nColCount];
-        for (int nRow=0; nRow<nRowCount; nRow++) {
-            for (int nCol=0; nCol<nColCount; nCol++) {
-                cells[nRow][nCol] = new CellView();
+    }
+    
+    // Get the rows to read when filling a view row. Repeated rows are identical, hence it is sufficient to
+    // read the first and the last row of a repetition
+    private int[] sampleRows(int nFirstRow, int nLastRow) {
+        int[] nSamples = new int[4];
+        int nCount = 0;
+        for (int nRow=nFirstRow; nRow<=nLastRow; ) {
+            int nLast = Math.min(nRow+Math.max(1, reader.getRowRepeat(nRow))-1, nLastRow);
+            if (nCount+2>nSamples.length) { nSamples = grow(nSamples); }
+            nSamples[nCount++] = nRow;
+            if (nLast>nRow) { nSamples[nCount++] = nLast; }
+            nRow = nLast+1;
+        }
+        int[] nResult = new int[nCount];
+        System.arraycopy(nSamples, 0, nResult, 0, nCount);
+        return nResult;
+    }
+    
+    // Create the cells for a view row. Repeated cells with a single original column each share the cell view
+    // if the cells do not span several columns.
+    private Band createBand(int nRow, int[] nSampleRows) {
+        Band band = new Band();
+        int nColCount = cols.size();
+        for (int nCol=0; nCol<nColCount; ) {
+            int nOriginalCol = cols.getOriginal(nCol);
+            int nRepeat = 1;
+            if (cols.getFirstOriginal(nCol)==nOriginalCol) {
+                nRepeat = Math.min(cols.getConsecutive(nCol), Math.max(1, reader.getColRepeat(nOriginalCol)));
+                for (int nSampleRow : nSampleRows) {
+                    Element cell = reader.getCell(nSampleRow, nOriginalCol);
+                    if (cell!=null && Misc.isElement(cell,XMLString.TABLE_TABLE_CELL) &&
+                            Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1)>1) {
+                        nRepeat = 1;
+                    }
+                    else if (cell!=null) { // (Non-existing cells are repeated to the end of the row)
+                        nRepeat = Math.min(nRepeat, reader.getCellRepeat(nSampleRow, nOriginalCol));
+                    }
+                }
             }
+            band.add(nCol, createCellView(nRow, nCol, nSampleRows));
+            nCol+=nRepeat;
         }
-		
-        // Fill the cell views
-        // (must start in the upper left corner of the original table)
-        int nViewRow = 0;
-        for (int nRow=0; nRow<=range.getLastRow(); nRow++) {
-            if (nViewRow<nRowCount && nRowMap[nViewRow]<nRow) { nViewRow++; }
-            int nViewCol = 0;
-            for (int nCol=0; nCol<=range.getLastCol(); nCol++) {
-                if (nViewCol<nColCount && nColMap[nViewCol]<nCol) { nViewCol++; }
-                Element cell = reader.getCell(nRow,nCol);
-                if (cell!=null) {
-                	if (Misc.isElement(cell,XMLString.TABLE_TABLE_CELL)) {
-                		int nRowSpan = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_ROWS_SPANNED),1);
-                		int nColSpan = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1);
-                		// Test if (parts of) the cell belongs the view
-                		if (nViewRow<nRowCount && nRowMap[nViewRow]<nRow+nRowSpan &&
-                				nViewCol<nColCount && nColMap[nViewCol]<nCol+nColSpan) {
-                			cells[nViewRow][nViewCol].cell=cell;
-                			cells[nViewRow][nViewCol].nOriginalRow=nRow;
-                			cells[nViewRow][nViewCol].nOriginalCol=nCol;
-                			// Calculate rowspan in view
-                			int i=nViewRow+1;
-                			while (i<nRowCount && nRowMap[i]<nRow+nRowSpan) { i++; }
-                			cells[nViewRow][nViewCol].nRowSpan = i-nViewRow;
-                			// Calculate colspan in view
-                			int j=nViewCol+1;
-                			while (j<nColCount && nColMap[j]<nCol+nColSpan) { j++; }
-                			cells[nViewRow][nViewCol].nColSpan = j-nViewCol;
-                		}
-                	}
-                	else if (Misc.isElement(cell,XMLString.TABLE_COVERED_TABLE_CELL)) {
-                		// Don't overwrite, the position may be occupied with a relocated cell
-                		if (cells[nViewRow][nViewCol].cell==null) {
-                			cells[nViewRow][nViewCol].cell=cell;
-                			cells[nViewRow][nViewCol].nOriginalRow=nRow;
-                			cells[nViewRow][nViewCol].nOriginalCol=nCol;
-                		}
-                	}
+        return band;
+    }
+    
+    // Create the cell view for a view cell. The original cells are read in the same order as the original table
+    // (must start in the upper left corner), but repeated cells are identical, hence it is sufficient to read the
+    // first and the last cell of a repetition
+    private CellView createCellView(int nRow, int nCol, int[] nSampleRows) {
+        CellView cellView = new CellView();
+        int nFirstCol = cols.getFirstOriginal(nCol);
+        int nLastCol = cols.getOriginal(nCol);
+        for (int nSampleRow : nSampleRows) {
+            for (int nOriginalCol=nFirstCol; nOriginalCol<=nLastCol; ) {
+                int nRepeat = reader.getCellRepeat(nSampleRow, nOriginalCol);
+                if (nRepeat==0) { // Non-existing cells, only the last one can belong to the view
+                    placeCell(cellView, null, nSampleRow, nLastCol, nRow, nCol);
+                    break;
                 }
-                else { // Non-existing cell, treat as empty
-            		// Test if the cell belongs the view
-            		if (nViewRow<nRowCount && nRowMap[nViewRow]<nRow+1 &&
-            				nViewCol<nColCount && nColMap[nViewCol]<nCol+1) {
-            			cells[nViewRow][nViewCol].cell=null;
-            			cells[nViewRow][nViewCol].nOriginalRow=nRow;
-            			cells[nViewRow][nViewCol].nOriginalCol=nCol;
-            			cells[nViewRow][nViewCol].nRowSpan = 1;
-            			cells[nViewRow][nViewCol].nColSpan = 1;
-            		}
-                	
+                Element cell = reader.getCell(nSampleRow, nOriginalCol);
+                int nLast = Math.min(nOriginalCol+nRepeat-1, nLastCol);
+                placeCell(cellView, cell, nSampleRow, nOriginalCol, nRow, nCol);
+                if (nLast>nOriginalCol) {
+                    placeCell(cellView, cell, nSampleRow, nLast, nRow, nCol);
                 }
+                nOriginalCol = nLast+1;
             }
         }
+        return cellView;
+    }
+    
+    // Place an original cell in a view cell
+    private void placeCell(CellView cellView, Element cell, int nOriginalRow, int nOriginalCol, int nRow, int nCol) {
+        if (cell!=null) {
+        	if (Misc.isElement(cell,XMLString.TABLE_TABLE_CELL)) {
+        		int nRowSpan = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_ROWS_SPANNED),1);
+        		int nColSpan = Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_COLUMNS_SPANNED),1);
+        		// Test if (parts of) the cell belongs the view
+        		if (rows.getOriginal(nRow)<nOriginalRow+nRowSpan && cols.getOriginal(nCol)<nOriginalCol+nColSpan) {
+        			cellView.cell=cell;
+        			cellView.nOriginalRow=nOriginalRow;
+        			cellView.nOriginalCol=nOriginalCol;
+        			// Calculate rowspan and colspan in view
+        			cellView.nRowSpan = rows.countBefore(nOriginalRow+nRowSpan)-nRow;
+        			cellView.nColSpan = cols.countBefore(nOriginalCol+nColSpan)-nCol;
+        		}
+        	}
+        	else if (Misc.isElement(cell,XMLString.TABLE_COVERED_TABLE_CELL)) {
+        		// Don't overwrite, the position may be occupied with a relocated cell
+        		if (cellView.cell==null) {
+        			cellView.cell=cell;
+        			cellView.nOriginalRow=nOriginalRow;
+        			cellView.nOriginalCol=nOriginalCol;
+        		}
+        	}
+        }
+        else { // Non-existing cell, treat as empty
+    		// Test if the cell belongs the view
+    		if (rows.getOriginal(nRow)==nOriginalRow && cols.getOriginal(nCol)==nOriginalCol) {
+    			cellView.cell=null;
+    			cellView.nOriginalRow=nOriginalRow;
+    			cellView.nOriginalCol=nOriginalCol;
+    			cellView.nRowSpan = 1;
+    			cellView.nColSpan = 1;
+    		}
+        }
+    }
+    
+    // Test whether a row contains a cell which spans several rows
+    private boolean hasRowSpan(int nRow) {
+        for (int nCol=0; ; ) {
+            int nRepeat = reader.getCellRepeat(nRow, nCol);
+            if (nRepeat==0) { return false; }
+            Element cell = reader.getCell(nRow, nCol);
+            if (cell!=null && Misc.isElement(cell,XMLString.TABLE_TABLE_CELL) &&
+                    Misc.getPosInteger(cell.getAttribute(XMLString.TABLE_NUMBER_ROWS_SPANNED),1)>1) {
+                return true;
+            }
+            nCol+=nRepeat;
+        }
+    }
+    
+    private void addBand(int nRow, Band band) {
+        if (nBandCount==nBandStarts.length) {
+            nBandStarts = grow(nBandStarts);
+            Band[] newBands = new Band[2*nBandCount];
+            System.arraycopy(bands, 0, newBands, 0, nBandCount);
+            bands = newBands;
+        }
+        nBandStarts[nBandCount] = nRow;
+        bands[nBandCount++] = band;
     }
 	
     public String getRelTableWidth() { return reader.getRelTableWidth(); }
 	
-    public int getRowCount() { return nRowCount; }
+    public int getRowCount() { return rows.size(); }
 
-    public int getColCount() { return nColCount; }
+    public int getColCount() { return cols.size(); }
 
     public String getColumnWidth(int nCol) {
-        return 0<=nCol && nCol<=nColCount ? reader.getColumnWidth(nColMap[nCol]) : null;
+        return 0<=nCol && nCol<cols.size() ? reader.getColumnWidth(cols.getOriginal(nCol)) : null;
     }
 	
     // TODO: Recalculate - the sum should be 100% even in a view!!
     public String getRelColumnWidth(int nCol) {
-        return 0<=nCol && nCol<=nColCount ? reader.getRelColumnWidth(nColMap[nCol]) : null;
+        return 0<=nCol && nCol<cols.size() ? reader.getRelColumnWidth(cols.getOriginal(nCol)) : null;
     }
 	
     public TableLine getRow(int nRow) {
-        return 0<=nRow && nRow<nRowCount ? reader.getRow(nRowMap[nRow]) : null;
+        return 0<=nRow && nRow<rows.size() ? reader.getRow(rows.getOriginal(nRow)) : null;
     }
 
     public TableLine getCol(int nCol) {
-        return 0<=nCol && nCol<nColCount ? reader.getCol(nColMap[nCol]) : null;
+        return 0<=nCol && nCol<cols.size() ? reader.getCol(cols.getOriginal(nCol)) : null;
     }
 	
     public Element getCell(int nRow, int nCol) {
-        return 0<=nRow && nRow<nRowCount && 0<=nCol && nCol<nColCount ?
-            cells[nRow][nCol].cell : null;  
+        CellView cellView = getCellView(nRow,nCol);
+        return cellView!=null ? cellView.cell : null;  
     }
 	
     public int getRowSpan(int nRow, int nCol) {
-        return 0<=nRow && nRow<nRowCount && 0<=nCol && nCol<nColCount ?
-            cells[nRow][nCol].nRowSpan : 1;  
+        CellView cellView = getCellView(nRow,nCol);
+        return cellView!=null ? cellView.nRowSpan : 1;  
     }
 	
     public int getColSpan(int nRow, int nCol) {
-        return 0<=nRow && nRow<nRowCount && 0<=nCol && nCol<nColCount ?
-            cells[nRow][nCol].nColSpan : 1;  
+        CellView cellView = getCellView(nRow,nCol);
+        return cellView!=null ? cellView.nColSpan : 1;  
     }
 	
     public String getCellStyleName(int nRow, int nCol) {
-        return 0<=nRow && nRow<nRowCount && 0<=nCol && nCol<nColCount ?
-            reader.getCellStyleName(cells[nRow][nCol].nOriginalRow, cells[nRow][nCol].nOriginalCol) : null;  
+        return 0<=nRow && nRow<rows.size() && 0<=nCol && nCol<cols.size() ?
+            reader.getCellStyleName(getOriginalRow(nRow,nCol), getOriginalCol(nRow,nCol)) : null;  
     }
 	
     // TODO: Not correct, see TableReader
     public String getCellWidth(int nRow, int nCol) {
-        return 0<=nRow && nRow<nRowCount && 0<=nCol && nCol<nColCount ?
-            reader.getCellWidth(cells[nRow][nCol].nOriginalRow, cells[nRow][nCol].nOriginalCol) : null;  
+        return 0<=nRow && nRow<rows.size() && 0<=nCol && nCol<cols.size() ?
+            reader.getCellWidth(getOriginalRow(nRow,nCol), getOriginalCol(nRow,nCol)) : null;  
+    }
+    
+    // Get the cell view for a view cell, or null if the cell is outside the view
+    private CellView getCellView(int nRow, int nCol) {
+        if (0<=nRow && nRow<rows.size() && 0<=nCol && nCol<cols.size()) {
+            Band band = bands[find(nBandStarts,nBandCount,nRow)];
+            return band.cells[band.getSegment(nCol)];
+        }
+        return null;
+    }
+    
+    // Get the original row of a view cell (which must be inside the view)
+    private int getOriginalRow(int nRow, int nCol) {
+        int nBand = find(nBandStarts,nBandCount,nRow);
+        Band band = bands[nBand];
+        return band.cells[band.getSegment(nCol)].nOriginalRow+nRow-nBandStarts[nBand];
+    }
+	
+    // Get the original column of a view cell (which must be inside the view)
+    private int getOriginalCol(int nRow, int nCol) {
+        Band band = bands[find(nBandStarts,nBandCount,nRow)];
+        int nSegment = band.getSegment(nCol);
+        return band.cells[nSegment].nOriginalCol+nCol-band.nSegmentStarts[nSegment];
     }
 	
     // Helper method: Is this row visible in this view?
@@ -203,7 +383,25 @@ public class TableView {
                (range.includeHidden() || !reader.getCol(nCol).isCollapse()) &&
                (range.includeFiltered() || !reader.getCol(nCol).isFilter());
     }
+    
+    // Helper method: Find the index of the last start, which is smaller than or equal to a given index,
+    // or -1 if there is no such start (the starts must be increasing)
+    private static int find(int[] nStarts, int nCount, int nIndex) {
+        int nLow = 0;
+        int nHigh = nCount-1;
+        while (nLow<=nHigh) {
+            int nMid = (nLow+nHigh)>>>1;
+            if (nStarts[nMid]<=nIndex) { nLow = nMid+1; }
+            else { nHigh = nMid-1; }
+        }
+        return nHigh;
+    }
+    
+    // Helper method: Double the size of an array
+    private static int[] grow(int[] n) {
+        int[] nNew = new int[2*n.length];
+        System.arraycopy(n, 0, nNew, 0, n.length);
+        return nNew;
+    }
 	
-	
-	
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+/************************************************************************
+ *
+ *  TextIndex.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.office;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.w3c.dom.Node;
+
+import writer2latex.util.Misc;
+
+/** This class provides the same queries on text content as the static methods <code>getCharacterCount</code>,
+ *  <code>isWhitespaceContent</code> and <code>getNextChar</code> of <code>OfficeReader</code>. The results
+ *  for each element are computed once and stored in the index, hence repeated queries on the same
+ *  content (e.g. a paragraph and the spans within the paragraph) do not traverse the content again.
+ *  The index assumes that the content is not modified. The index is thread safe.
+ */
+public final class TextIndex {
+
+	// The information stored for each element
+	private static final class Entry {
+		final int nCount; // The number of characters, as returned by getCharacterCount
+		final boolean bWhitespace; // True if the content is whitespace only, as returned by isWhitespaceContent
+		final char cFirst; // The first character in logical order, or 0 if there are no characters
+
+		Entry(int nCount, boolean bWhitespace, char cFirst) {
+			this.nCount = nCount;
+			this.bWhitespace = bWhitespace;
+			this.cFirst = cFirst;
+		}
+	}
+
+	// Access to the entries must be synchronized on the map
+	private final Map<Node,Entry> entries = new IdentityHashMap<Node,Entry>();
+
+	/** Create a new, empty index
+	 */
+	public TextIndex() {
+	}
+
+	/** Counts the number of characters (text nodes) in this element
+	 *  excluding footnotes etc.
+	 *  @param node the node to count in
+	 *  @return the number of characters
+	 *  @see OfficeReader#getCharacterCount(Node)
+	 */
+	public int getCharacterCount(Node node) {
+		return node.getNodeType()==Node.ELEMENT_NODE ? getEntry(node).nCount : OfficeReader.getCharacterCount(node);
+	}
+
+	/** Checks, if the only text content of this node is whitespace
+	 *  @param node the node to check (should be a paragraph node or a child
+	 *  of a paragraph node)
+	 *  @return true if the node contains whitespace only
+	 *  @see OfficeReader#isWhitespaceContent(Node)
+	 */
+	public boolean isWhitespaceContent(Node node) {
+		return node.getNodeType()==Node.ELEMENT_NODE ? getEntry(node).bWhitespace : OfficeReader.isWhitespaceContent(node);
+	}
+
+	/** Return the next character in logical order, within the current paragraph
+	 *  @param node the node to start from
+	 *  @return the character, or 0 if there are no more characters in this paragraph
+	 *  @see OfficeReader#getNextChar(Node)
+	 */
+	public char getNextChar(Node node) {
+		// First look in the descendants of the node
+		if (isDescendable(node)) {
+			char c = getEntry(node).cFirst;
+			if (c!='\u0000') { return c; }
+			// If the node is a paragraph, we are done
+			if (node.getNodeName().equals(XMLString.TEXT_P)) { return '\u0000'; }
+		}
+		// Then look in the following siblings, but don't leave this paragraph
+		Node next = node;
+		while (next!=null) {
+			Node sibling = next.getNextSibling();
+			while (sibling!=null) {
+				char c = getFirstChar(sibling);
+				if (c!='\u0000') { return c; }
+				sibling = sibling.getNextSibling();
+			}
+			next = next.getParentNode();
+			if (next!=null && next.getNodeType()==Node.ELEMENT_NODE &&
+				next.getNodeName().equals(XMLString.TEXT_P)) {
+				return '\u0000';
+			}
+		}
+		return '\u0000';
+	}
+
+	// Get the first character of a node (including descendants) in logical order
+	private char getFirstChar(Node node) {
+		if (node.getNodeType()==Node.TEXT_NODE) {
+			String s = node.getNodeValue();
+			return s.length()>0 ? s.charAt(0) : '\u0000';
+		}
+		else if (isDescendable(node)) {
+			return getEntry(node).cFirst;
+		}
+		return '\u0000';
+	}
+
+	// Test if the children of a node are included in the logical order (draw elements and notes are not)
+	private static boolean isDescendable(Node node) {
+		return node.getNodeType()==Node.ELEMENT_NODE && node.hasChildNodes() &&
+			!OfficeReader.isDrawElement(node) && !OfficeReader.isNoteElement(node);
+	}
+
+	// Get the entry for an element, creating it if required
+	private Entry getEntry(Node node) {
+		synchronized (entries) {
+			Entry entry = entries.get(node);
+			if (entry!=null) { return entry; }
+		}
+		// Create the entry outside the lock; the entries of the children are created on the way
+		Entry entry = createEntry(node);
+		synchronized (entries) {
+			entries.put(node, entry);
+		}
+		return entry;
+	}
+
+	// Create the entry for an element by a single traversal of the children
+	private Entry createEntry(Node node) {
+		int nCount = 0;
+		boolean bWhitespace = true;
+		char cFirst = '\u0000';
+		Node child = node.getFirstChild();
+		while (child!=null) {
+			short nodeType = child.getNodeType();
+			if (nodeType==Node.TEXT_NODE) {
+				String s = child.getNodeValue();
+				nCount += s.length();
+				if (bWhitespace) {
+					for (int i=0; i<s.length(); i++) {
+						if (!Character.isWhitespace(s.charAt(i))) { bWhitespace = false; break; }
+					}
+				}
+				if (cFirst=='\u0000' && s.length()>0) { cFirst = s.charAt(0); }
+			}
+			else if (nodeType==Node.ELEMENT_NODE) {
+				Entry childEntry = null;
+				String sName = child.getNodeName();
+				boolean bTextElement = OfficeReader.isTextElement(child);
+				// Count characters
+				if (sName.equals(XMLString.TEXT_S)) {
+					nCount += Misc.getPosInteger(Misc.getAttribute(child,XMLString.TEXT_C),1);
+				}
+				else if (sName.equals(XMLString.TEXT_TAB_STOP) || sName.equals(XMLString.TEXT_TAB)) {
+					nCount++; // treat as single space
+				}
+				else if (OfficeReader.isNoteElement(child)) {
+					// ignore
+				}
+				else if (bTextElement) {
+					childEntry = getEntry(child);
+					nCount += childEntry.nCount;
+				}
+				// Check whitespace
+				if (bWhitespace) {
+					if (bTextElement) {
+						if (childEntry==null) { childEntry = getEntry(child); }
+						bWhitespace = childEntry.bWhitespace;
+					}
+					else {
+						bWhitespace = false; // found non-text content!
+					}
+				}
+				// Find first character
+				if (cFirst=='\u0000' && isDescendable(child)) {
+					if (childEntry==null) { childEntry = getEntry(child); }
+					cFirst = childEntry.cFirst;
+				}
+			}
+			child = child.getNextSibling();
+		}
+		return new Entry(nCount, bWhitespace, cFirst);
+	}
+
+}
@@ -19,14 +19,15 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2022-05-06)
+ *  Version 2.0 (2026-10-18)
  *
  */
 package writer2latex.util;
 
 /** A collection of static methods used to perform calculations on strings representing floating point numbers
  *  with units or percentages. In the JavaDoc, a length refers to a string like e.g. "21.7cm" and percent refers
- *  to a string like e.g. "2.5%".
+ *  to a string like e.g. "2.5%". The calculations on lengths are performed by the class <code>Length</code>,
+ *  which should be used directly for repeated calculations.
  */
 public class Calc {
 
@@ -68,16 +69,12 @@ public class Calc {
 	 * @return true if the value is close to zero
 	 */
 	public static boolean isZero(String sValue) {
-		return Math.abs(getFloat(sValue.substring(0, sValue.length()-2),0))<0.001;
+		return Length.valueOf(sValue).isZero();
 	}
 
 	// Return units per inch for some unit
 	private static final float getUpi(String sUnit) {
-	    if ("in".equals(sUnit)) { return 1.0F; }
-	    else if ("mm".equals(sUnit)) { return 25.4F; }
-	    else if ("cm".equals(sUnit)) { return 2.54F; }
-	    else if ("pc".equals(sUnit)) { return 6F; }
-	    else { return 72; } // pt or unknown
+		return Length.getUpi(sUnit);
 	}
 
 	/** Convert a length to px assuming 96ppi; cf. the CSS spec (e.g. "0.1in" returns "9.6px").
@@ -131,11 +128,7 @@ public class Calc {
 	 * @return the converted length as a double precision float
 	 */
 	public static final double length2cm(String sLength) {
-	    if (sLength.equals("0")) { return 0; }
-	    float fLength=getFloat(sLength.substring(0,sLength.length()-2),0);
-	    String sUnit=sLength.substring(sLength.length()-2);
-	    float fConvertedLength = getUpi("cm")/getUpi(sUnit)*fLength;
-	    return fConvertedLength;
+	    return Length.valueOf(sLength).toCm();
 	}
 
 	/** Divide dividend by divisor and return the quotient as an integer percentage
@@ -161,23 +154,7 @@ public class Calc {
 	 * @return the quotient percentage
 	 */
 	public static final String divide(String sDividend, String sDivisor, boolean bMax100) {
-	    if (sDividend.equals("0")) { return "0%"; }
-	    if (sDivisor.equals("0")) { return "100%"; }
-	
-	    float fDividend=getFloat(sDividend.substring(0,sDividend.length()-2),1);
-	    String sDividendUnit=sDividend.substring(sDividend.length()-2);
-	    float fDivisor=getFloat(sDivisor.substring(0,sDivisor.length()-2),1);
-	    String sDivisorUnit=sDivisor.substring(sDivisor.length()-2);
-	    int nPercent = Math.round(100*fDividend*getUpi(sDivisorUnit)/fDivisor/getUpi(sDividendUnit));
-	    if (bMax100 && nPercent>100) {
-	    	return "100%";
-	    }
-	    else if (nPercent>0) {
-	    	return Integer.toString(nPercent)+"%";
-	    }
-	    else {
-	    	return "1%";
-	    }
+		return Length.valueOf(sDividend).divide(Length.valueOf(sDivisor), bMax100);
 	}
 
 	/** Multiply a length by a percentage (e.g. "150%" multiplied with "2.5mm" returns "3.75cm")
@@ -187,19 +164,14 @@ public class Calc {
 	 * @return the product length
 	 */
 	public static final String multiply(String sPercent, String sLength) {
-	    if (sLength.equals("0")) { return "0"; }
-	    float fPercent=getFloat(sPercent.substring(0,sPercent.length()-1),1);
-	    return multiply(fPercent/100.0F,sLength);
+	    return Length.valueOf(sLength).multiply(sPercent).toString();
 	}
 	
 	/** Multiply a length by a float (e.g. 1.5 multiplied with "2cm" returns "3cm")
 	 * 
 	 */
 	public static final String multiply(float f, String sLength) {
-	    float fLength=getFloat(sLength.substring(0,sLength.length()-2),1);
-	    String sUnit=sLength.substring(sLength.length()-2);
-	    return Float.toString(f*fLength)+sUnit;
-		
+	    return Length.valueOf(sLength).multiply(f).toString();
 	}
 	
 	/** Add two lengths (e.g. "2.5cm" added to "1.08cm" returns "3.58cm")
@@ -209,14 +181,7 @@ public class Calc {
 	 * @return the sum (as a length with the same unit as the first term)
 	 */
 	public static final String add(String sLength1, String sLength2){
-	    if (sLength1.equals("0")) { return sLength2; }
-	    if (sLength2.equals("0")) { return sLength1; }
-	    float fLength1=getFloat(sLength1.substring(0,sLength1.length()-2),1);
-	    String sUnit1=sLength1.substring(sLength1.length()-2);
-	    float fLength2=getFloat(sLength2.substring(0,sLength2.length()-2),1);
-	    String sUnit2=sLength2.substring(sLength2.length()-2);
-	    // Use unit from sLength1:
-	    return Float.toString(fLength1+getUpi(sUnit1)/getUpi(sUnit2)*fLength2)+sUnit1;
+	    return Length.valueOf(sLength1).add(Length.valueOf(sLength2)).toString();
 	}
 
 	/** Subtract two lengths (e.g. "2.5cm" subtracted by "1.08cm" returns "1.42cm")
@@ -226,7 +191,7 @@ public class Calc {
 	 * @return the difference (as a length with the same unit as the first term)
 	 */
 	public static final String sub(String sLength1, String sLength2){
-	    return add(sLength1,multiply("-100%",sLength2));
+	    return Length.valueOf(sLength1).sub(Length.valueOf(sLength2)).toString();
 	}
 	
 	/** Round a length to two decimal places
@@ -254,7 +219,7 @@ public class Calc {
 	 * @return true if the lengths can be considered equal
 	 */
 	public static boolean isEqual(String sThis, String sThat) {
-		return isZero(sub(sThis,sThat));
+		return Length.valueOf(sThis).isEqual(Length.valueOf(sThat));
 	}
 
 	/** Test whether a given length is smaller than another length
@@ -265,7 +230,7 @@ public class Calc {
 	 * @return true is the first length is smaller than the second length
 	 */
 	public static boolean isLessThan(String sThis, String sThat) {
-	    return sub(sThis,sThat).startsWith("-");
+	    return Length.valueOf(sThis).isLessThan(Length.valueOf(sThat));
 	}
 	
 	/** Return the maximum of some lengths, discarding null values
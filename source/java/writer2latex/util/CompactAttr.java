@@ -0,0 +1,232 @@
+/************************************************************************
+ *
+ *  CompactAttr.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+import org.w3c.dom.UserDataHandler;
+
+/** An attribute of an element in a <code>CompactDocument</code>. The attributes are not stored as nodes,
+ *  hence an attribute node is a transient object, which is created when it is requested.
+ */
+final class CompactAttr implements Attr {
+	private final CompactElement owner;
+	private final String sName;
+	private String sValue;
+
+	CompactAttr(CompactElement owner, String sName, String sValue) {
+		this.owner = owner;
+		this.sName = sName;
+		this.sValue = sValue;
+	}
+
+	// Implement Attr
+
+	public String getName() {
+		return sName;
+	}
+
+	public boolean getSpecified() {
+		return true;
+	}
+
+	public String getValue() {
+		return sValue;
+	}
+
+	public void setValue(String sValue) {
+		owner.setAttribute(sName, sValue);
+		this.sValue = sValue;
+	}
+
+	public Element getOwnerElement() {
+		return owner;
+	}
+
+	public TypeInfo getSchemaTypeInfo() {
+		return null;
+	}
+
+	public boolean isId() {
+		return false;
+	}
+
+	// Implement Node
+
+	public String getNodeName() {
+		return sName;
+	}
+
+	public String getNodeValue() {
+		return sValue;
+	}
+
+	public void setNodeValue(String sNodeValue) {
+		setValue(sNodeValue);
+	}
+
+	public short getNodeType() {
+		return Node.ATTRIBUTE_NODE;
+	}
+
+	public Node getParentNode() {
+		return null;
+	}
+
+	public NodeList getChildNodes() {
+		return new CompactNode.StaticNodeList();
+	}
+
+	public Node getFirstChild() {
+		return null;
+	}
+
+	public Node getLastChild() {
+		return null;
+	}
+
+	public Node getPreviousSibling() {
+		return null;
+	}
+
+	public Node getNextSibling() {
+		return null;
+	}
+
+	public NamedNodeMap getAttributes() {
+		return null;
+	}
+
+	public Document getOwnerDocument() {
+		return owner.getOwnerDocument();
+	}
+
+	public Node insertBefore(Node newChild, Node refChild) {
+		throw CompactNode.unsupported();
+	}
+
+	public Node replaceChild(Node newChild, Node oldChild) {
+		throw CompactNode.unsupported();
+	}
+
+	public Node removeChild(Node oldChild) {
+		throw CompactNode.unsupported();
+	}
+
+	public Node appendChild(Node newChild) {
+		throw CompactNode.unsupported();
+	}
+
+	public boolean hasChildNodes() {
+		return false;
+	}
+
+	public Node cloneNode(boolean bDeep) {
+		throw CompactNode.unsupported();
+	}
+
+	public void normalize() {
+	}
+
+	public boolean isSupported(String sFeature, String sVersion) {
+		return false;
+	}
+
+	public String getNamespaceURI() {
+		return null;
+	}
+
+	public String getPrefix() {
+		return null;
+	}
+
+	public void setPrefix(String sPrefix) throws DOMException {
+		throw CompactNode.unsupported();
+	}
+
+	public String getLocalName() {
+		return null;
+	}
+
+	public boolean hasAttributes() {
+		return false;
+	}
+
+	public String getBaseURI() {
+		return null;
+	}
+
+	public short compareDocumentPosition(Node other) {
+		throw CompactNode.unsupported();
+	}
+
+	public String getTextContent() {
+		return sValue;
+	}
+
+	public void setTextContent(String sTextContent) {
+		setValue(sTextContent);
+	}
+
+	public boolean isSameNode(Node other) {
+		return this==other;
+	}
+
+	public String lookupPrefix(String sNamespaceURI) {
+		return null;
+	}
+
+	public boolean isDefaultNamespace(String sNamespaceURI) {
+		return false;
+	}
+
+	public String lookupNamespaceURI(String sPrefix) {
+		return null;
+	}
+
+	public boolean isEqualNode(Node arg) {
+		throw CompactNode.unsupported();
+	}
+
+	public Object getFeature(String sFeature, String sVersion) {
+		return null;
+	}
+
+	public Object setUserData(String sKey, Object data, UserDataHandler handler) {
+		throw CompactNode.unsupported();
+	}
+
+	public Object getUserData(String sKey) {
+		return null;
+	}
+
+}
@@ -0,0 +1,155 @@
+/************************************************************************
+ *
+ *  CompactDOMBuilder.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/** This class provides a simple way to create and populate a <code>CompactDocument</code> in logical order.
+ *  The resulting DOM tree uses far less memory than a general DOM implementation.
+ */
+public class CompactDOMBuilder {
+	private CompactDocument dom=null;
+	private int nCurrentElement=-1;
+	private int nCurrentText=-1;
+
+	/**
+	 * Append an element to the current element and set this new element to be the current element.
+	 * If there is no current element, a new DOM tree will be created (discarding the current DOM tree if any)
+	 * with the new element as the document element.
+	 *
+	 * @param sTagName
+	 * @return true on success
+	 */
+	public boolean startElement(String sTagName) {
+		int nParent;
+		if (nCurrentElement>=0) {
+			nParent = nCurrentElement;
+		}
+		else {
+			dom = new CompactDocument();
+			nParent = 0;
+		}
+		nCurrentElement = dom.newElement(sTagName);
+		dom.insertBefore(nParent, nCurrentElement, -1);
+		nCurrentText = -1;
+		return true;
+	}
+
+	/**
+	 * Set the current element to the parent of the current element
+	 * @return true on success, false if there is no current element to end
+	 */
+	public boolean endElement() {
+		if (nCurrentElement>=0) {
+			nCurrentElement = dom.parents[nCurrentElement];
+			nCurrentText = -1;
+			if (nCurrentElement==0) { // Back at document element: Finished populating the DOM tree
+				nCurrentElement = -1;
+				dom.trimToSize();
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Set an attribute of the current element
+	 * @param sName
+	 * @param sValue
+	 * @return true on success, false if there is no current element
+	 */
+	public boolean setAttribute(String sName,String sValue) {
+		if (nCurrentElement>=0) {
+			dom.setAttribute(nCurrentElement, sName, sValue);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Add characters to the currentElement. Adjacent characters are collected in a single text node.
+	 * @param sText
+	 * @return true on success, false if there is no current element
+	 */
+	public boolean characters(String sText) {
+		if (nCurrentElement>=0) {
+			if (sText.length()>0) {
+				if (nCurrentText>=0) {
+					dom.appendText(nCurrentText, sText);
+				}
+				else {
+					nCurrentText = dom.newText(sText);
+					dom.insertBefore(nCurrentElement, nCurrentText, -1);
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Add characters to the currentElement. Adjacent characters are collected in a single text node.
+	 * The characters are copied directly from the array, hence this is the preferred method for a SAX handler.
+	 * @param chars an array containing the characters
+	 * @param nStart the index of the first character
+	 * @param nLength the number of characters
+	 * @return true on success, false if there is no current element
+	 */
+	public boolean characters(char[] chars, int nStart, int nLength) {
+		if (nCurrentElement>=0) {
+			if (nLength>0) {
+				if (nCurrentText>=0) {
+					dom.appendText(nCurrentText, chars, nStart, nLength);
+				}
+				else {
+					nCurrentText = dom.newText(chars, nStart, nLength);
+					dom.insertBefore(nCurrentElement, nCurrentText, -1);
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Get the current element
+	 *
+	 * @return the current element, or null if there is no current element
+	 */
+	public Element getCurrentElement() {
+		return nCurrentElement>=0 ? (Element) dom.getNode(nCurrentElement) : null;
+	}
+
+	/**
+	 * Get the DOM tree
+	 *
+	 * @return the DOM tree, or null if none has been created
+	 */
+	public Document getDOM() {
+		return dom;
+	}
+}
@@ -0,0 +1,565 @@
+/************************************************************************
+ *
+ *  CompactDocument.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMConfiguration;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+
+/** This class is a compact, array based implementation of a DOM <code>Document</code>, supporting
+ *  element and text nodes only.
+ *  The tree is stored in a set of parallel arrays indexed by an integer node id. The node objects
+ *  seen by the user of the DOM are thin wrappers around the id, which are created on demand.
+ *  Tag and attribute names are stored as ids in a <code>NameTable</code> owned by the document, which
+ *  extends the global name table. Attribute values are shared, and the text nodes refer to a common
+ *  character buffer.
+ *  Only the (few) modifications needed by the converters are supported: Elements and text nodes
+ *  can be created, moved and removed, and attributes and text can be changed.
+ *  Methods which are not supported throw a <code>DOMException</code> with code
+ *  <code>NOT_SUPPORTED_ERR</code>.
+ */
+public final class CompactDocument extends CompactNode implements Document {
+
+	// Node types
+	static final byte DOCUMENT = Node.DOCUMENT_NODE;
+	static final byte ELEMENT = Node.ELEMENT_NODE;
+	static final byte TEXT = Node.TEXT_NODE;
+
+	// The nodes (the document itself is node 0)
+	int nNodeCount = 0;
+	byte[] types;
+	int[] names; // name id (elements only)
+	int[] parents;
+	int[] firstChildren;
+	int[] lastChildren;
+	int[] nextSiblings;
+	int[] prevSiblings;
+	int[] starts; // index of the first attribute (elements) or first character (text nodes)
+	int[] lengths; // number of attributes (elements) or characters (text nodes)
+	private CompactNode[] nodes; // wrappers, created on demand
+
+	// The attributes
+	int nAttrCount = 0;
+	int[] attrNames;
+	String[] attrValues;
+
+	// The characters of all text nodes
+	int nTextLength = 0;
+	char[] text;
+
+	// The name table of this document, which extends the global name table
+	private final NameTable nameTable = new NameTable(NameTable.getInstance());
+
+	// Shared attribute values (only while building the document)
+	private Map<String,String> values = new HashMap<String,String>();
+
+	// Counter for modifications to the structure of the tree
+	int nModCount = 0;
+
+	/** Create a new, empty document
+	 */
+	public CompactDocument() {
+		super(null,0);
+		types = new byte[256];
+		names = new int[256];
+		parents = new int[256];
+		firstChildren = new int[256];
+		lastChildren = new int[256];
+		nextSiblings = new int[256];
+		prevSiblings = new int[256];
+		starts = new int[256];
+		lengths = new int[256];
+		nodes = new CompactNode[256];
+		attrNames = new int[256];
+		attrValues = new String[256];
+		text = new char[1024];
+		newNode(DOCUMENT);
+		nodes[0] = this;
+	}
+
+	/** Release the memory which is reserved for further growth of the document. This should be
+	 *  called when the document is complete. The document can still be modified afterwards.
+	 */
+	public void trimToSize() {
+		types = Arrays.copyOf(types, nNodeCount);
+		names = Arrays.copyOf(names, nNodeCount);
+		parents = Arrays.copyOf(parents, nNodeCount);
+		firstChildren = Arrays.copyOf(firstChildren, nNodeCount);
+		lastChildren = Arrays.copyOf(lastChildren, nNodeCount);
+		nextSiblings = Arrays.copyOf(nextSiblings, nNodeCount);
+		prevSiblings = Arrays.copyOf(prevSiblings, nNodeCount);
+		starts = Arrays.copyOf(starts, nNodeCount);
+		lengths = Arrays.copyOf(lengths, nNodeCount);
+		synchronized (this) {
+			nodes = Arrays.copyOf(nodes, nNodeCount);
+		}
+		attrNames = Arrays.copyOf(attrNames, nAttrCount);
+		attrValues = Arrays.copyOf(attrValues, nAttrCount);
+		text = Arrays.copyOf(text, nTextLength);
+		values = null;
+	}
+
+	// Get the wrapper for a node
+	CompactNode getNode(int nId) {
+		if (nId<0) { return null; }
+		CompactNode node = nodes[nId];
+		if (node==null) {
+			synchronized (this) {
+				node = nodes[nId];
+				if (node==null) {
+					node = types[nId]==ELEMENT ? new CompactElement(this,nId) : new CompactText(this,nId);
+					nodes[nId] = node;
+				}
+			}
+		}
+		return node;
+	}
+
+	// Get the name with a given id
+	String getName(int nNameId) {
+		return nameTable.getName(nNameId);
+	}
+
+	// Create a new node without parent
+	private int newNode(byte nType) {
+		if (nNodeCount==types.length) {
+			int nNewLength = 2*nNodeCount;
+			types = Arrays.copyOf(types, nNewLength);
+			names = Arrays.copyOf(names, nNewLength);
+			parents = Arrays.copyOf(parents, nNewLength);
+			firstChildren = Arrays.copyOf(firstChildren, nNewLength);
+			lastChildren = Arrays.copyOf(lastChildren, nNewLength);
+			nextSiblings = Arrays.copyOf(nextSiblings, nNewLength);
+			prevSiblings = Arrays.copyOf(prevSiblings, nNewLength);
+			starts = Arrays.copyOf(starts, nNewLength);
+			lengths = Arrays.copyOf(lengths, nNewLength);
+			synchronized (this) {
+				nodes = Arrays.copyOf(nodes, nNewLength);
+			}
+		}
+		int nId = nNodeCount++;
+		types[nId] = nType;
+		names[nId] = -1;
+		parents[nId] = -1;
+		firstChildren[nId] = -1;
+		lastChildren[nId] = -1;
+		nextSiblings[nId] = -1;
+		prevSiblings[nId] = -1;
+		starts[nId] = 0;
+		lengths[nId] = 0;
+		return nId;
+	}
+
+	int newElement(String sName) {
+		int nId = newNode(ELEMENT);
+		names[nId] = nameTable.getId(sName);
+		starts[nId] = nAttrCount;
+		return nId;
+	}
+
+	int newText(String sText) {
+		int nId = newNode(TEXT);
+		starts[nId] = nTextLength;
+		appendChars(sText);
+		lengths[nId] = sText.length();
+		return nId;
+	}
+
+	int newText(char[] chars, int nStart, int nLength) {
+		int nId = newNode(TEXT);
+		starts[nId] = nTextLength;
+		appendChars(chars, nStart, nLength);
+		lengths[nId] = nLength;
+		return nId;
+	}
+
+	// Structure of the tree
+
+	// Insert a node as a child of another node, before the given reference node (or as the last child)
+	void insertBefore(int nParent, int nChild, int nRef) {
+		if (parents[nChild]>=0) {
+			unlink(nChild);
+		}
+		parents[nChild] = nParent;
+		int nPrev = nRef>=0 ? prevSiblings[nRef] : lastChildren[nParent];
+		prevSiblings[nChild] = nPrev;
+		nextSiblings[nChild] = nRef;
+		if (nPrev>=0) { nextSiblings[nPrev] = nChild; }
+		else { firstChildren[nParent] = nChild; }
+		if (nRef>=0) { prevSiblings[nRef] = nChild; }
+		else { lastChildren[nParent] = nChild; }
+		nModCount++;
+	}
+
+	// Remove a node from its parent
+	void unlink(int nChild) {
+		int nParent = parents[nChild];
+		int nPrev = prevSiblings[nChild];
+		int nNext = nextSiblings[nChild];
+		if (nPrev>=0) { nextSiblings[nPrev] = nNext; }
+		else { firstChildren[nParent] = nNext; }
+		if (nNext>=0) { prevSiblings[nNext] = nPrev; }
+		else { lastChildren[nParent] = nPrev; }
+		parents[nChild] = -1;
+		prevSiblings[nChild] = -1;
+		nextSiblings[nChild] = -1;
+		nModCount++;
+	}
+
+	// Test whether a node is an ancestor of (or the same as) another node
+	boolean isAncestor(int nAncestor, int nId) {
+		while (nId>=0) {
+			if (nId==nAncestor) { return true; }
+			nId = parents[nId];
+		}
+		return false;
+	}
+
+	// Get the next node in document order within the subtree with the given root
+	int nextInSubtree(int nRoot, int nId) {
+		if (firstChildren[nId]>=0) {
+			return firstChildren[nId];
+		}
+		while (nId!=nRoot && nextSiblings[nId]<0) {
+			nId = parents[nId];
+		}
+		return nId!=nRoot ? nextSiblings[nId] : -1;
+	}
+
+	// Get all descendants of a node with a given tag name
+	NodeList getElementsByTagName(int nRoot, String sName) {
+		CompactNode.StaticNodeList list = new CompactNode.StaticNodeList();
+		boolean bAll = "*".equals(sName);
+		int nNameId = nameTable.findId(sName);
+		if (bAll || nNameId>=0) {
+			int nId = firstChildren[nRoot];
+			while (nId>=0) {
+				if (types[nId]==ELEMENT && (bAll || names[nId]==nNameId)) {
+					list.add(getNode(nId));
+				}
+				nId = nextInSubtree(nRoot,nId);
+			}
+		}
+		return list;
+	}
+
+	// Get the text content of a node
+	String getTextContent(int nRoot) {
+		if (types[nRoot]==TEXT) {
+			return getText(nRoot);
+		}
+		StringBuilder buf = new StringBuilder();
+		int nId = firstChildren[nRoot];
+		while (nId>=0) {
+			if (types[nId]==TEXT) {
+				buf.append(text, starts[nId], lengths[nId]);
+			}
+			nId = nextInSubtree(nRoot,nId);
+		}
+		return buf.toString();
+	}
+
+	// Attributes
+
+	// Find the index of an attribute of an element, or -1 if the attribute does not exist
+	int findAttribute(int nId, String sName) {
+		int nNameId = nameTable.findId(sName);
+		if (nNameId<0) {
+			return -1;
+		}
+		int nStart = starts[nId];
+		int nEnd = nStart+lengths[nId];
+		for (int i=nStart; i<nEnd; i++) {
+			if (attrNames[i]==nNameId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	void setAttribute(int nId, String sName, String sValue) {
+		int nIndex = findAttribute(nId, sName);
+		if (nIndex>=0) {
+			attrValues[nIndex] = shareValue(sValue);
+			return;
+		}
+		int nStart = starts[nId];
+		int nLength = lengths[nId];
+		if (nAttrCount+nLength+1>attrNames.length) {
+			int nNewLength = 2*(nAttrCount+nLength+1);
+			attrNames = Arrays.copyOf(attrNames, nNewLength);
+			attrValues = Arrays.copyOf(attrValues, nNewLength);
+		}
+		if (nStart+nLength!=nAttrCount) {
+			// The attributes are not the last ones, so we need to move them
+			System.arraycopy(attrNames, nStart, attrNames, nAttrCount, nLength);
+			System.arraycopy(attrValues, nStart, attrValues, nAttrCount, nLength);
+			starts[nId] = nAttrCount;
+			nAttrCount+=nLength;
+		}
+		attrNames[nAttrCount] = nameTable.getId(sName);
+		attrValues[nAttrCount] = shareValue(sValue);
+		nAttrCount++;
+		lengths[nId]++;
+	}
+
+	void removeAttribute(int nIndex, int nId) {
+		int nEnd = starts[nId]+lengths[nId];
+		System.arraycopy(attrNames, nIndex+1, attrNames, nIndex, nEnd-nIndex-1);
+		System.arraycopy(attrValues, nIndex+1, attrValues, nIndex, nEnd-nIndex-1);
+		attrValues[nEnd-1] = null;
+		lengths[nId]--;
+	}
+
+	private String shareValue(String sValue) {
+		if (values!=null) {
+			String sShared = values.get(sValue);
+			if (sShared!=null) {
+				return sShared;
+			}
+			values.put(sValue, sValue);
+		}
+		return sValue;
+	}
+
+	// Text
+
+	String getText(int nId) {
+		return new String(text, starts[nId], lengths[nId]);
+	}
+
+	void setText(int nId, String sText) {
+		starts[nId] = nTextLength;
+		appendChars(sText);
+		lengths[nId] = sText.length();
+	}
+
+	// Append characters to a text node
+	void appendText(int nId, String sText) {
+		moveTextToEnd(nId);
+		appendChars(sText);
+		lengths[nId]+=sText.length();
+	}
+
+	// Append characters to a text node
+	void appendText(int nId, char[] chars, int nStart, int nLength) {
+		moveTextToEnd(nId);
+		appendChars(chars, nStart, nLength);
+		lengths[nId]+=nLength;
+	}
+
+	// Make sure the characters of a text node are the last ones in the text buffer
+	private void moveTextToEnd(int nId) {
+		if (starts[nId]+lengths[nId]!=nTextLength) {
+			int nStart = nTextLength;
+			appendChars(text, starts[nId], lengths[nId]);
+			starts[nId] = nStart;
+		}
+	}
+
+	private void ensureTextCapacity(int nLength) {
+		if (nTextLength+nLength>text.length) {
+			text = Arrays.copyOf(text, Math.max(2*text.length, nTextLength+nLength));
+		}
+	}
+
+	private void appendChars(String s) {
+		int nLength = s.length();
+		ensureTextCapacity(nLength);
+		s.getChars(0, nLength, text, nTextLength);
+		nTextLength+=nLength;
+	}
+
+	private void appendChars(char[] chars, int nStart, int nLength) {
+		ensureTextCapacity(nLength);
+		System.arraycopy(chars, nStart, text, nTextLength, nLength);
+		nTextLength+=nLength;
+	}
+
+	// Implement Node
+
+	@Override public String getNodeName() {
+		return "#document";
+	}
+
+	@Override public short getNodeType() {
+		return Node.DOCUMENT_NODE;
+	}
+
+	@Override public Document getOwnerDocument() {
+		return null;
+	}
+
+	@Override public String getTextContent() {
+		return null;
+	}
+
+	// Implement Document
+
+	@Override public DocumentType getDoctype() {
+		return null;
+	}
+
+	@Override public DOMImplementation getImplementation() {
+		throw unsupported();
+	}
+
+	@Override public Element getDocumentElement() {
+		int nId = firstChildren[0];
+		while (nId>=0 && types[nId]!=ELEMENT) {
+			nId = nextSiblings[nId];
+		}
+		return (Element) getNode(nId);
+	}
+
+	@Override public Element createElement(String sTagName) {
+		return (Element) getNode(newElement(sTagName));
+	}
+
+	@Override public DocumentFragment createDocumentFragment() {
+		throw unsupported();
+	}
+
+	@Override public Text createTextNode(String sData) {
+		return (Text) getNode(newText(sData));
+	}
+
+	@Override public Comment createComment(String sData) {
+		throw unsupported();
+	}
+
+	@Override public CDATASection createCDATASection(String sData) {
+		throw unsupported();
+	}
+
+	@Override public ProcessingInstruction createProcessingInstruction(String sTarget, String sData) {
+		throw unsupported();
+	}
+
+	@Override public Attr createAttribute(String sName) {
+		throw unsupported();
+	}
+
+	@Override public EntityReference createEntityReference(String sName) {
+		throw unsupported();
+	}
+
+	@Override public NodeList getElementsByTagName(String sTagName) {
+		return getElementsByTagName(0, sTagName);
+	}
+
+	@Override public Node importNode(Node importedNode, boolean bDeep) {
+		throw unsupported();
+	}
+
+	@Override public Element createElementNS(String sNamespaceURI, String sQualifiedName) {
+		throw unsupported();
+	}
+
+	@Override public Attr createAttributeNS(String sNamespaceURI, String sQualifiedName) {
+		throw unsupported();
+	}
+
+	@Override public NodeList getElementsByTagNameNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	@Override public Element getElementById(String sElementId) {
+		return null;
+	}
+
+	@Override public String getInputEncoding() {
+		return null;
+	}
+
+	@Override public String getXmlEncoding() {
+		return null;
+	}
+
+	@Override public boolean getXmlStandalone() {
+		return false;
+	}
+
+	@Override public void setXmlStandalone(boolean bXmlStandalone) {
+		throw unsupported();
+	}
+
+	@Override public String getXmlVersion() {
+		return "1.0";
+	}
+
+	@Override public void setXmlVersion(String sXmlVersion) {
+		throw unsupported();
+	}
+
+	@Override public boolean getStrictErrorChecking() {
+		return true;
+	}
+
+	@Override public void setStrictErrorChecking(boolean bStrictErrorChecking) {
+		throw unsupported();
+	}
+
+	@Override public String getDocumentURI() {
+		return null;
+	}
+
+	@Override public void setDocumentURI(String sDocumentURI) {
+		throw unsupported();
+	}
+
+	@Override public Node adoptNode(Node source) {
+		throw unsupported();
+	}
+
+	@Override public DOMConfiguration getDomConfig() {
+		throw unsupported();
+	}
+
+	@Override public void normalizeDocument() {
+		throw unsupported();
+	}
+
+	@Override public Node renameNode(Node n, String sNamespaceURI, String sQualifiedName) {
+		throw unsupported();
+	}
+
+}
@@ -0,0 +1,211 @@
+/************************************************************************
+ *
+ *  CompactElement.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+/** An element in a <code>CompactDocument</code>
+ */
+final class CompactElement extends CompactNode implements Element {
+
+	CompactElement(CompactDocument doc, int nId) {
+		super(doc, nId);
+	}
+
+	/** Get the value of an attribute
+	 *
+	 * @param sName the name of the attribute
+	 * @return the value, or null if the attribute does not exist
+	 */
+	String getAttributeOrNull(String sName) {
+		int nIndex = doc.findAttribute(nId, sName);
+		return nIndex>=0 ? doc.attrValues[nIndex] : null;
+	}
+
+	// Implement Node
+
+	@Override public String getNodeName() {
+		return doc.getName(doc.names[nId]);
+	}
+
+	@Override public short getNodeType() {
+		return Node.ELEMENT_NODE;
+	}
+
+	@Override public NamedNodeMap getAttributes() {
+		return new AttributeMap(this);
+	}
+
+	@Override public boolean hasAttributes() {
+		return doc.lengths[nId]>0;
+	}
+
+	// Implement Element
+
+	public String getTagName() {
+		return doc.getName(doc.names[nId]);
+	}
+
+	public String getAttribute(String sName) {
+		int nIndex = doc.findAttribute(nId, sName);
+		return nIndex>=0 ? doc.attrValues[nIndex] : "";
+	}
+
+	public void setAttribute(String sName, String sValue) {
+		doc.setAttribute(nId, sName, sValue);
+	}
+
+	public void removeAttribute(String sName) {
+		int nIndex = doc.findAttribute(nId, sName);
+		if (nIndex>=0) {
+			doc.removeAttribute(nIndex, nId);
+		}
+	}
+
+	public Attr getAttributeNode(String sName) {
+		int nIndex = doc.findAttribute(nId, sName);
+		return nIndex>=0 ? new CompactAttr(this, sName, doc.attrValues[nIndex]) : null;
+	}
+
+	public Attr setAttributeNode(Attr newAttr) {
+		throw unsupported();
+	}
+
+	public Attr removeAttributeNode(Attr oldAttr) {
+		throw unsupported();
+	}
+
+	public NodeList getElementsByTagName(String sName) {
+		return doc.getElementsByTagName(nId, sName);
+	}
+
+	public String getAttributeNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	public void setAttributeNS(String sNamespaceURI, String sQualifiedName, String sValue) {
+		throw unsupported();
+	}
+
+	public void removeAttributeNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	public Attr getAttributeNodeNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	public Attr setAttributeNodeNS(Attr newAttr) {
+		throw unsupported();
+	}
+
+	public NodeList getElementsByTagNameNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	public boolean hasAttribute(String sName) {
+		return doc.findAttribute(nId, sName)>=0;
+	}
+
+	public boolean hasAttributeNS(String sNamespaceURI, String sLocalName) {
+		throw unsupported();
+	}
+
+	public TypeInfo getSchemaTypeInfo() {
+		return null;
+	}
+
+	public void setIdAttribute(String sName, boolean bIsId) {
+		throw unsupported();
+	}
+
+	public void setIdAttributeNS(String sNamespaceURI, String sLocalName, boolean bIsId) {
+		throw unsupported();
+	}
+
+	public void setIdAttributeNode(Attr idAttr, boolean bIsId) {
+		throw unsupported();
+	}
+
+	/** The attributes of an element, presented as a <code>NamedNodeMap</code>
+	 */
+	static final class AttributeMap implements NamedNodeMap {
+		private final CompactElement element;
+
+		AttributeMap(CompactElement element) {
+			this.element = element;
+		}
+
+		public Node getNamedItem(String sName) {
+			return element.getAttributeNode(sName);
+		}
+
+		public Node setNamedItem(Node arg) {
+			throw unsupported();
+		}
+
+		public Node removeNamedItem(String sName) {
+			Attr attr = element.getAttributeNode(sName);
+			if (attr==null) {
+				throw new DOMException(DOMException.NOT_FOUND_ERR, "The attribute does not exist");
+			}
+			element.removeAttribute(sName);
+			return attr;
+		}
+
+		public Node item(int nIndex) {
+			CompactDocument doc = element.doc;
+			if (nIndex>=0 && nIndex<doc.lengths[element.nId]) {
+				int i = doc.starts[element.nId]+nIndex;
+				return new CompactAttr(element, doc.getName(doc.attrNames[i]), doc.attrValues[i]);
+			}
+			return null;
+		}
+
+		public int getLength() {
+			return element.doc.lengths[element.nId];
+		}
+
+		public Node getNamedItemNS(String sNamespaceURI, String sLocalName) {
+			throw unsupported();
+		}
+
+		public Node setNamedItemNS(Node arg) {
+			throw unsupported();
+		}
+
+		public Node removeNamedItemNS(String sNamespaceURI, String sLocalName) {
+			throw unsupported();
+		}
+	}
+
+}
@@ -0,0 +1,313 @@
+/************************************************************************
+ *
+ *  CompactNode.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.UserDataHandler;
+
+/** This is the base class for the nodes of a <code>CompactDocument</code>. A node is merely a
+ *  reference to the document and the id of the node within the document.
+ */
+abstract class CompactNode implements Node {
+
+	final CompactDocument doc;
+	final int nId;
+
+	/** Create a node
+	 *
+	 * @param doc the document containing the node, or null if the node is the document itself
+	 * @param nId the id of the node within the document
+	 */
+	CompactNode(CompactDocument doc, int nId) {
+		this.doc = doc!=null ? doc : (CompactDocument) this;
+		this.nId = nId;
+	}
+
+	static DOMException unsupported() {
+		return new DOMException(DOMException.NOT_SUPPORTED_ERR, "The operation is not supported by this DOM");
+	}
+
+	// Get the compact node corresponding to a node, which must be part of the same document
+	private int getId(Node node) {
+		if (node instanceof CompactNode && ((CompactNode) node).doc==doc && node!=doc) {
+			return ((CompactNode) node).nId;
+		}
+		throw new DOMException(DOMException.WRONG_DOCUMENT_ERR, "The node belongs to another document");
+	}
+
+	// Implement Node
+
+	public String getNodeValue() {
+		return null;
+	}
+
+	public void setNodeValue(String sNodeValue) {
+		// Setting the value has no effect unless this is a text node
+	}
+
+	public Node getParentNode() {
+		return doc.getNode(doc.parents[nId]);
+	}
+
+	public NodeList getChildNodes() {
+		return new ChildNodes(doc, nId);
+	}
+
+	public Node getFirstChild() {
+		return doc.getNode(doc.firstChildren[nId]);
+	}
+
+	public Node getLastChild() {
+		return doc.getNode(doc.lastChildren[nId]);
+	}
+
+	public Node getPreviousSibling() {
+		return doc.getNode(doc.prevSiblings[nId]);
+	}
+
+	public Node getNextSibling() {
+		return doc.getNode(doc.nextSiblings[nId]);
+	}
+
+	public NamedNodeMap getAttributes() {
+		return null;
+	}
+
+	public Document getOwnerDocument() {
+		return doc;
+	}
+
+	public Node insertBefore(Node newChild, Node refChild) {
+		int nNewChild = getId(newChild);
+		int nRefChild = -1;
+		if (refChild!=null) {
+			nRefChild = getId(refChild);
+			if (doc.parents[nRefChild]!=nId) {
+				throw new DOMException(DOMException.NOT_FOUND_ERR, "The reference node is not a child of this node");
+			}
+		}
+		if (doc.types[nId]==CompactDocument.TEXT || doc.isAncestor(nNewChild, nId)) {
+			throw new DOMException(DOMException.HIERARCHY_REQUEST_ERR, "The node cannot be inserted here");
+		}
+		if (nNewChild!=nRefChild) {
+			doc.insertBefore(nId, nNewChild, nRefChild);
+		}
+		return newChild;
+	}
+
+	public Node replaceChild(Node newChild, Node oldChild) {
+		if (newChild!=oldChild) {
+			insertBefore(newChild, oldChild);
+			removeChild(oldChild);
+		}
+		return oldChild;
+	}
+
+	public Node removeChild(Node oldChild) {
+		int nOldChild = getId(oldChild);
+		if (doc.parents[nOldChild]!=nId) {
+			throw new DOMException(DOMException.NOT_FOUND_ERR, "The node is not a child of this node");
+		}
+		doc.unlink(nOldChild);
+		return oldChild;
+	}
+
+	public Node appendChild(Node newChild) {
+		return insertBefore(newChild, null);
+	}
+
+	public boolean hasChildNodes() {
+		return doc.firstChildren[nId]>=0;
+	}
+
+	public Node cloneNode(boolean bDeep) {
+		throw unsupported();
+	}
+
+	public void normalize() {
+		throw unsupported();
+	}
+
+	public boolean isSupported(String sFeature, String sVersion) {
+		return false;
+	}
+
+	public String getNamespaceURI() {
+		return null;
+	}
+
+	public String getPrefix() {
+		return null;
+	}
+
+	public void setPrefix(String sPrefix) {
+		throw unsupported();
+	}
+
+	public String getLocalName() {
+		return null;
+	}
+
+	public boolean hasAttributes() {
+		return false;
+	}
+
+	public String getBaseURI() {
+		return null;
+	}
+
+	public short compareDocumentPosition(Node other) {
+		throw unsupported();
+	}
+
+	public String getTextContent() {
+		return doc.getTextContent(nId);
+	}
+
+	public void setTextContent(String sTextContent) {
+		throw unsupported();
+	}
+
+	public boolean isSameNode(Node other) {
+		return this==other;
+	}
+
+	public String lookupPrefix(String sNamespaceURI) {
+		return null;
+	}
+
+	public boolean isDefaultNamespace(String sNamespaceURI) {
+		return false;
+	}
+
+	public String lookupNamespaceURI(String sPrefix) {
+		return null;
+	}
+
+	public boolean isEqualNode(Node arg) {
+		throw unsupported();
+	}
+
+	public Object getFeature(String sFeature, String sVersion) {
+		return null;
+	}
+
+	public Object setUserData(String sKey, Object data, UserDataHandler handler) {
+		throw unsupported();
+	}
+
+	public Object getUserData(String sKey) {
+		return null;
+	}
+
+	/** A live list of the child nodes of a node. Sequential access is fast as long as the tree is not modified.
+	 */
+	static final class ChildNodes implements NodeList {
+		private final CompactDocument doc;
+		private final int nParent;
+
+		// Cached information, only valid if the tree has not been modified
+		private int nModCount = -1;
+		private int nLength;
+		private int nLastIndex;
+		private int nLastChild;
+
+		ChildNodes(CompactDocument doc, int nParent) {
+			this.doc = doc;
+			this.nParent = nParent;
+		}
+
+		private void validate() {
+			if (nModCount!=doc.nModCount) {
+				nModCount = doc.nModCount;
+				nLength = -1;
+				nLastIndex = -1;
+			}
+		}
+
+		public Node item(int nIndex) {
+			if (nIndex<0) { return null; }
+			validate();
+			int nChild;
+			int i;
+			if (nLastIndex>=0 && nIndex>=nLastIndex) {
+				nChild = nLastChild;
+				i = nLastIndex;
+			}
+			else {
+				nChild = doc.firstChildren[nParent];
+				i = 0;
+			}
+			while (nChild>=0 && i<nIndex) {
+				nChild = doc.nextSiblings[nChild];
+				i++;
+			}
+			if (nChild<0) { return null; }
+			nLastIndex = i;
+			nLastChild = nChild;
+			return doc.getNode(nChild);
+		}
+
+		public int getLength() {
+			validate();
+			if (nLength<0) {
+				nLength = 0;
+				int nChild = doc.firstChildren[nParent];
+				while (nChild>=0) {
+					nLength++;
+					nChild = doc.nextSiblings[nChild];
+				}
+			}
+			return nLength;
+		}
+	}
+
+	/** A static list of nodes
+	 */
+	static final class StaticNodeList implements NodeList {
+		private List<Node> nodes = new ArrayList<Node>();
+
+		void add(Node node) {
+			nodes.add(node);
+		}
+
+		public Node item(int nIndex) {
+			return nIndex>=0 && nIndex<nodes.size() ? nodes.get(nIndex) : null;
+		}
+
+		public int getLength() {
+			return nodes.size();
+		}
+	}
+
+}
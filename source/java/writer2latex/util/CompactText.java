@@ -0,0 +1,127 @@
+/************************************************************************
+ *
+ *  CompactText.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/** A text node in a <code>CompactDocument</code>
+ */
+final class CompactText extends CompactNode implements Text {
+
+	CompactText(CompactDocument doc, int nId) {
+		super(doc, nId);
+	}
+
+	// Implement Node
+
+	@Override public String getNodeName() {
+		return "#text";
+	}
+
+	@Override public String getNodeValue() {
+		return doc.getText(nId);
+	}
+
+	@Override public void setNodeValue(String sNodeValue) {
+		doc.setText(nId, sNodeValue);
+	}
+
+	@Override public short getNodeType() {
+		return Node.TEXT_NODE;
+	}
+
+	// Implement CharacterData
+
+	public String getData() {
+		return doc.getText(nId);
+	}
+
+	public void setData(String sData) {
+		doc.setText(nId, sData);
+	}
+
+	public int getLength() {
+		return doc.lengths[nId];
+	}
+
+	public String substringData(int nOffset, int nCount) {
+		int nLength = doc.lengths[nId];
+		if (nOffset<0 || nOffset>nLength || nCount<0) {
+			throw new DOMException(DOMException.INDEX_SIZE_ERR, "Offset out of range");
+		}
+		return new String(doc.text, doc.starts[nId]+nOffset, Math.min(nCount, nLength-nOffset));
+	}
+
+	public void appendData(String sArg) {
+		doc.appendText(nId, sArg);
+	}
+
+	public void insertData(int nOffset, String sArg) {
+		String s = getData();
+		checkOffset(nOffset, s);
+		setData(s.substring(0, nOffset)+sArg+s.substring(nOffset));
+	}
+
+	public void deleteData(int nOffset, int nCount) {
+		replaceData(nOffset, nCount, "");
+	}
+
+	public void replaceData(int nOffset, int nCount, String sArg) {
+		String s = getData();
+		checkOffset(nOffset, s);
+		if (nCount<0) {
+			throw new DOMException(DOMException.INDEX_SIZE_ERR, "Negative count");
+		}
+		setData(s.substring(0, nOffset)+sArg+s.substring(Math.min(nOffset+nCount, s.length())));
+	}
+
+	private void checkOffset(int nOffset, String s) {
+		if (nOffset<0 || nOffset>s.length()) {
+			throw new DOMException(DOMException.INDEX_SIZE_ERR, "Offset out of range");
+		}
+	}
+
+	// Implement Text
+
+	public Text splitText(int nOffset) {
+		throw unsupported();
+	}
+
+	public boolean isElementContentWhitespace() {
+		return false;
+	}
+
+	public String getWholeText() {
+		throw unsupported();
+	}
+
+	public Text replaceWholeText(String sContent) {
+		throw unsupported();
+	}
+
+}
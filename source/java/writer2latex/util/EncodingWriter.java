@@ -0,0 +1,199 @@
+/************************************************************************
+ *
+ *  EncodingWriter.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/** This class is a <code>Writer</code>, which encodes characters to an <code>OutputStream</code>
+ *  in the same way as an <code>OutputStreamWriter</code>. Characters which cannot be encoded are
+ *  replaced with the replacement of the encoding (usually ?).
+ *  The bytes are collected in a buffer, and ASCII characters are encoded directly into the buffer
+ *  if the encoding is compatible with ASCII. For UTF-8, all characters except surrogates are encoded
+ *  directly. Only the remaining characters are passed to a <code>CharsetEncoder</code>.
+ *  If the stream is a <code>FileOutputStream</code>, the bytes are written to the file channel.
+ */
+public class EncodingWriter extends Writer {
+
+	private final OutputStream os;
+	private final FileChannel channel; // The channel of the stream, or null if the stream is not a file
+	private final CharsetEncoder encoder;
+	private final boolean bAscii; // True if ASCII characters are encoded as single bytes
+	private final boolean bUTF8; // True if the encoding is UTF-8
+	private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+	private boolean bHaveLeftover = false; // True if a high surrogate is waiting for the following character
+	private char cLeftover;
+
+	/** Create a new <code>EncodingWriter</code>
+	 *
+	 * @param os the <code>OutputStream</code> to write to
+	 * @param sEncoding the name of the encoding to use
+	 * @throws UnsupportedEncodingException if the encoding is not supported
+	 */
+	public EncodingWriter(OutputStream os, String sEncoding) throws UnsupportedEncodingException {
+		super(os);
+		Charset charset;
+		try {
+			charset = Charset.forName(sEncoding);
+		}
+		catch (IllegalArgumentException e) {
+			throw new UnsupportedEncodingException(sEncoding);
+		}
+		this.os = os;
+		this.channel = os instanceof FileOutputStream ? ((FileOutputStream) os).getChannel() : null;
+		this.encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.bUTF8 = charset.equals(StandardCharsets.UTF_8);
+		this.bAscii = bUTF8 || isAsciiCompatible(charset);
+	}
+
+	// Test if the ASCII characters are encoded as the same single bytes in a given charset
+	private static boolean isAsciiCompatible(Charset charset) {
+		if (!charset.canEncode()) { return false; }
+		char[] ascii = new char[128];
+		for (int i=0; i<128; i++) {
+			ascii[i] = (char) i;
+		}
+		byte[] encoded = new String(ascii).getBytes(charset);
+		if (encoded.length!=128) { return false; }
+		for (int i=0; i<128; i++) {
+			if (encoded[i]!=i) { return false; }
+		}
+		return true;
+	}
+
+	@Override public void write(char[] cbuf, int nOff, int nLen) throws IOException {
+		synchronized (lock) {
+			int nEnd = nOff+nLen;
+			int i = nOff;
+			while (bHaveLeftover && i<nEnd) {
+				// Complete the surrogate pair (or replace the lone surrogate, which may be followed by another one)
+				bHaveLeftover = false;
+				encode(CharBuffer.wrap(new char[] { cLeftover, cbuf[i++] }),false);
+			}
+			while (i<nEnd) {
+				char c = cbuf[i];
+				if (c<0x80 && bAscii) {
+					if (!bytes.hasRemaining()) { writeBytes(); }
+					bytes.put((byte) c);
+					i++;
+				}
+				else if (bUTF8 && c<0x800) {
+					if (bytes.remaining()<2) { writeBytes(); }
+					bytes.put((byte) (0xC0 | (c>>6)));
+					bytes.put((byte) (0x80 | (c & 0x3F)));
+					i++;
+				}
+				else if (bUTF8 && !Character.isSurrogate(c)) {
+					if (bytes.remaining()<3) { writeBytes(); }
+					bytes.put((byte) (0xE0 | (c>>12)));
+					bytes.put((byte) (0x80 | ((c>>6) & 0x3F)));
+					bytes.put((byte) (0x80 | (c & 0x3F)));
+					i++;
+				}
+				else {
+					// Pass the run of characters, which cannot be encoded directly, to the encoder
+					int j = i+1;
+					while (j<nEnd && needsEncoder(cbuf[j])) { j++; }
+					// If the run ends before the end of the input, it cannot end with the first half of a surrogate pair
+					encode(CharBuffer.wrap(cbuf,i,j-i),j<nEnd);
+					i = j;
+				}
+			}
+		}
+	}
+
+	// Test if a character must be passed to the encoder
+	private boolean needsEncoder(char c) {
+		if (c<0x80 && bAscii) { return false; }
+		return !bUTF8 || Character.isSurrogate(c);
+	}
+
+	// Encode characters with the encoder. If this is not the end of the input, a trailing high surrogate
+	// is kept for the next call.
+	private void encode(CharBuffer in, boolean bEndOfInput) throws IOException {
+		while (encoder.encode(in, bytes, bEndOfInput).isOverflow()) {
+			writeBytes();
+		}
+		if (bEndOfInput) {
+			while (encoder.flush(bytes).isOverflow()) {
+				writeBytes();
+			}
+			encoder.reset();
+		}
+		else if (in.hasRemaining()) {
+			cLeftover = in.get();
+			bHaveLeftover = true;
+		}
+	}
+
+	// Write the content of the byte buffer to the stream
+	private void writeBytes() throws IOException {
+		if (bytes.position()>0) {
+			bytes.flip();
+			if (channel!=null) {
+				while (bytes.hasRemaining()) {
+					channel.write(bytes);
+				}
+			}
+			else {
+				os.write(bytes.array(), 0, bytes.limit());
+			}
+			bytes.clear();
+		}
+	}
+
+	@Override public void flush() throws IOException {
+		synchronized (lock) {
+			writeBytes();
+			os.flush();
+		}
+	}
+
+	@Override public void close() throws IOException {
+		synchronized (lock) {
+			if (bHaveLeftover) {
+				// A lone surrogate at the end of the input
+				bHaveLeftover = false;
+				encode(CharBuffer.wrap(new char[] { cLeftover }),true);
+			}
+			flush();
+			os.close();
+		}
+	}
+
+}
@@ -0,0 +1,250 @@
+/************************************************************************
+ *
+ *  Length.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+/** This class represents a length as a parsed value, i.e. a floating point number and a unit
+ *  (e.g. "21.7cm" is represented as 21.7F and "cm"). The special length "0" has no unit.
+ *  A length is immutable, and calculations on lengths are performed without converting to and from
+ *  strings. The results are exactly the same as the results of the corresponding methods in <code>Calc</code>,
+ *  which are implemented using this class. In particular the unit of a sum is the unit of the first term,
+ *  and the string representation of a calculated length is <code>Float.toString</code> of the value followed
+ *  by the unit.
+ */
+public final class Length {
+	
+	/** The length "0" */
+	public static final Length ZERO = new Length("0");
+	
+	private final String sLength; // The string representation, or null if not created yet
+	private final float fValue; // The value
+	private final boolean bValid; // False if the value could not be parsed
+	private final String sUnit; // The unit, or null for the length "0"
+	
+	// Create a length from a string
+	private Length(String sLength) {
+		this.sLength = sLength;
+		if (sLength.equals("0") || sLength.length()<2) {
+			// A length without a unit
+			fValue = 0;
+			bValid = sLength.equals("0");
+			sUnit = null;
+		}
+		else {
+			float f;
+			boolean b;
+			try {
+				f = Float.parseFloat(sLength.substring(0,sLength.length()-2));
+				b = true;
+			}
+			catch (NumberFormatException e) {
+				f = 0;
+				b = false;
+			}
+			fValue = f;
+			bValid = b;
+			sUnit = sLength.substring(sLength.length()-2);
+		}
+	}
+	
+	// Create a calculated length
+	private Length(float fValue, String sUnit) {
+		this.sLength = null;
+		this.fValue = fValue;
+		this.bValid = true;
+		this.sUnit = sUnit;
+	}
+	
+	/** Get a length from a string (e.g. "2.54cm")
+	 * 
+	 * @param sLength the string representation of the length
+	 * @return the length, or null if the string is null
+	 */
+	public static Length valueOf(String sLength) {
+		if (sLength==null) { return null; }
+		if (sLength.equals("0")) { return ZERO; }
+		return new Length(sLength);
+	}
+	
+	/** Get the numeric value of this length
+	 * 
+	 * @param fDefault the value to return if the length could not be parsed
+	 * @return the value in the unit of this length
+	 */
+	public float getValue(float fDefault) {
+		return bValid ? fValue : fDefault;
+	}
+	
+	/** Get the unit of this length
+	 * 
+	 * @return the unit (e.g. "cm"), or null for the length "0"
+	 */
+	public String getUnit() {
+		return sUnit;
+	}
+	
+	// Test whether this is the unit less length "0"
+	private boolean isPlainZero() {
+		return sUnit==null;
+	}
+	
+	// Return units per inch for some unit
+	static final float getUpi(String sUnit) {
+	    if ("in".equals(sUnit)) { return 1.0F; }
+	    else if ("mm".equals(sUnit)) { return 25.4F; }
+	    else if ("cm".equals(sUnit)) { return 2.54F; }
+	    else if ("pc".equals(sUnit)) { return 6F; }
+	    else { return 72; } // pt or unknown
+	}
+	
+	/** Add another length to this length
+	 * 
+	 * @param other the other length
+	 * @return the sum (as a length with the same unit as this length)
+	 */
+	public Length add(Length other) {
+		if (isPlainZero()) { return other; }
+		if (other.isPlainZero()) { return this; }
+		return new Length(getValue(1)+getUpi(sUnit)/getUpi(other.sUnit)*other.getValue(1), sUnit);
+	}
+	
+	/** Subtract another length from this length
+	 * 
+	 * @param other the other length
+	 * @return the difference (as a length with the same unit as this length)
+	 */
+	public Length sub(Length other) {
+		return add(other.multiply(-1.0F));
+	}
+	
+	/** Multiply this length by a float
+	 * 
+	 * @param f the factor
+	 * @return the product
+	 */
+	public Length multiply(float f) {
+		if (isPlainZero()) { return this; }
+		return new Length(f*getValue(1), sUnit);
+	}
+	
+	/** Multiply this length by a percentage (e.g. "150%")
+	 * 
+	 * @param sPercent the percentage
+	 * @return the product
+	 */
+	public Length multiply(String sPercent) {
+		if (isPlainZero()) { return this; }
+	    return multiply(Calc.getFloat(sPercent.substring(0,sPercent.length()-1),1)/100.0F);
+	}
+	
+	/** Divide this length by another length and return the quotient as an integer percentage
+	 *  (e.g. "0.5cm" divided by "2cm" returns "25%"). 
+	 *  Exception: Never returns below 1% except if the dividend is zero, and never returns above 100%
+	 *  if last parameter is true.
+	 * 
+	 * @param divisor the length to use as divisor
+	 * @param bMax100 true if a maximum of 100% should be returned
+	 * @return the quotient percentage
+	 */
+	public String divide(Length divisor, boolean bMax100) {
+	    if (isPlainZero()) { return "0%"; }
+	    if (divisor.isPlainZero()) { return "100%"; }
+	    int nPercent = Math.round(100*getValue(1)*getUpi(divisor.sUnit)/divisor.getValue(1)/getUpi(sUnit));
+	    if (bMax100 && nPercent>100) {
+	    	return "100%";
+	    }
+	    else if (nPercent>0) {
+	    	return Integer.toString(nPercent)+"%";
+	    }
+	    else {
+	    	return "1%";
+	    }
+	}
+	
+	/** Convert this length to cm
+	 * 
+	 * @return the value in cm
+	 */
+	public float toCm() {
+		if (isPlainZero()) { return 0; }
+		return getUpi("cm")/getUpi(sUnit)*getValue(0);
+	}
+	
+	/** Checks whether this length is zero within a tolerance of 0.001
+	 * 
+	 * @return true if the value is close to zero
+	 */
+	public boolean isZero() {
+		return Math.abs(getValue(0))<0.001;
+	}
+	
+	/** Test whether this length is negative, i.e. the string representation starts with a minus sign
+	 * (note that this includes -0.0)
+	 * 
+	 * @return true if the length is negative
+	 */
+	public boolean isNegative() {
+		if (sLength!=null) { return sLength.startsWith("-"); }
+		return !Float.isNaN(fValue) && Float.floatToIntBits(fValue)<0;
+	}
+	
+	/** Get the absolute value of this length
+	 * 
+	 * @return the absolute value
+	 */
+	public Length abs() {
+		if (!isNegative()) { return this; }
+		if (sLength!=null) { return new Length(sLength.substring(1)); }
+		return new Length(-fValue, sUnit);
+	}
+	
+	/** Test whether this length is smaller than another length
+	 * 
+	 * @param other the other length
+	 * @return true if this length is the smaller
+	 */
+	public boolean isLessThan(Length other) {
+		return sub(other).isNegative();
+	}
+	
+	/** Test if this length is equal to another length (within a tolerance of 0.001)
+	 * 
+	 * @param other the other length
+	 * @return true if the lengths can be considered equal
+	 */
+	public boolean isEqual(Length other) {
+		return sub(other).isZero();
+	}
+	
+	/** Get the string representation of this length
+	 * 
+	 * @return the length as a string (e.g. "2.54cm")
+	 */
+	@Override public String toString() {
+		if (sLength!=null) { return sLength; }
+		return Float.toString(fValue)+sUnit;
+	}
+
+}
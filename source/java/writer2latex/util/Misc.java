@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 2.0 (2018-07-25)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
@@ -298,6 +298,10 @@ public class Misc{
      * Utility method to retrieve a Node attribute or null
      */
     public static final String getAttribute (Node node, String attribute) {
+        if (node instanceof CompactElement) {
+            // Avoid creating attribute nodes
+            return ((CompactElement) node).getAttributeOrNull(attribute);
+        }
         NamedNodeMap attrNodes = node.getAttributes();
         
         if (attrNodes != null) {
@@ -0,0 +1,205 @@
+/************************************************************************
+ *
+ *  NameMap.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** This class is a compact map from names to string values, which is optimized for names in the global
+ *  <code>NameTable</code>. The map uses open addressing on the name ids and stores the ids and the
+ *  values in two arrays, hence there are no entry objects. The arrays are not allocated before the first
+ *  value is added, so an empty map is very cheap. Other names (which are rare) are stored in an ordinary
+ *  map, as the global table is read only.
+ *  The map is intended for small sets of attributes such as style properties. It is not thread safe,
+ *  but it can safely be read by several threads once it has been populated.
+ */
+public final class NameMap {
+	private static final NameTable nameTable = NameTable.getInstance();
+	private static final int EMPTY = -1;
+
+	private int[] ids = null;
+	private String[] values = null;
+	private int nSize = 0;
+	private int nShift = 0;
+	private Map<String,String> others = null; // Names which are not in the global table
+
+	/** Create a new, empty map
+	 */
+	public NameMap() {
+	}
+
+	/** Create a new map with the same content as another map
+	 *
+	 * @param map the map to copy
+	 */
+	public NameMap(NameMap map) {
+		if (map.ids!=null) {
+			ids = map.ids.clone();
+			values = map.values.clone();
+			nSize = map.nSize;
+			nShift = map.nShift;
+		}
+		if (map.others!=null) {
+			others = new HashMap<String,String>(map.others);
+		}
+	}
+
+	/** Get the number of names in this map
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return others!=null ? nSize+others.size() : nSize;
+	}
+
+	/** Test whether a name is contained in this map
+	 *
+	 * @param sName the name
+	 * @return true if the name exists
+	 */
+	public boolean containsKey(String sName) {
+		int nId = nameTable.findId(sName);
+		if (nId<0) {
+			return others!=null && others.containsKey(sName);
+		}
+		return nSize>0 && find(nId)>=0;
+	}
+
+	/** Get the value for a name
+	 *
+	 * @param sName the name
+	 * @return the value, or null if the name does not exist in this map
+	 */
+	public String get(String sName) {
+		int nId = nameTable.findId(sName);
+		if (nId<0) {
+			return others!=null ? others.get(sName) : null;
+		}
+		if (nSize>0) {
+			int nIndex = find(nId);
+			if (nIndex>=0) {
+				return values[nIndex];
+			}
+		}
+		return null;
+	}
+
+	/** Set the value for a name
+	 *
+	 * @param sName the name
+	 * @param sValue the new value
+	 */
+	public void put(String sName, String sValue) {
+		int nId = nameTable.findId(sName);
+		if (nId<0) {
+			if (others==null) {
+				others = new HashMap<String,String>();
+			}
+			others.put(sName, sValue);
+			return;
+		}
+		if (ids==null) {
+			allocate(8);
+		}
+		else if (4*(nSize+1)>3*ids.length) {
+			int[] oldIds = ids;
+			String[] oldValues = values;
+			allocate(2*ids.length);
+			for (int i=0; i<oldIds.length; i++) {
+				if (oldIds[i]!=EMPTY) {
+					insert(oldIds[i],oldValues[i]);
+				}
+			}
+		}
+		insert(nId,sValue);
+	}
+
+	/** Get all names in this map
+	 *
+	 * @return a list of the names (in no particular order)
+	 */
+	public List<String> getNames() {
+		List<String> names = new ArrayList<String>(size());
+		if (ids!=null) {
+			for (int nId : ids) {
+				if (nId!=EMPTY) {
+					names.add(nameTable.getName(nId));
+				}
+			}
+		}
+		if (others!=null) {
+			names.addAll(others.keySet());
+		}
+		return names;
+	}
+
+	// Allocate the arrays with a given capacity, which must be a power of 2
+	private void allocate(int nCapacity) {
+		ids = new int[nCapacity];
+		values = new String[nCapacity];
+		for (int i=0; i<nCapacity; i++) {
+			ids[i] = EMPTY;
+		}
+		nShift = 32-Integer.numberOfTrailingZeros(nCapacity);
+		nSize = 0;
+	}
+
+	// Get the initial index for a name id
+	private int hash(int nId) {
+		return (nId*0x9E3779B9)>>>nShift;
+	}
+
+	// Find the index of a name id, or -1 if it does not exist
+	private int find(int nId) {
+		if (nId<0) { return -1; }
+		int nMask = ids.length-1;
+		for (int i=hash(nId); ids[i]!=EMPTY; i=(i+1)&nMask) {
+			if (ids[i]==nId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// Insert or replace the value for a name id (there must be room for the new value)
+	private void insert(int nId, String sValue) {
+		int nMask = ids.length-1;
+		int i = hash(nId);
+		while (ids[i]!=EMPTY) {
+			if (ids[i]==nId) {
+				values[i] = sValue;
+				return;
+			}
+			i = (i+1)&nMask;
+		}
+		ids[i] = nId;
+		values[i] = sValue;
+		nSize++;
+	}
+
+}
@@ -0,0 +1,185 @@
+/************************************************************************
+ *
+ *  NameTable.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** This class maintains a table of XML names (tag names and attribute names). Each name is
+ *  represented by a single, canonical <code>String</code> instance and a unique integer id.
+ *  There is a global table, which is seeded with the string constants of a class (typically
+ *  <code>XMLString</code>), in which case these constants become the canonical instances. Hence the test
+ *  <code>XMLString.TEXT_P.equals(node.getNodeName())</code> will succeed by reference equality for
+ *  a node created using the name table.
+ *  The global table can only be extended with <code>addNames</code>. Other names (which are defined
+ *  by the documents) are added to local tables, which extend the global table. A local table is
+ *  typically owned by a single document, and is released with the document. Names and ids from
+ *  the global table are shared by all local tables.
+ *  The tables are thread safe, and names are never removed from a table.
+ */
+public final class NameTable {
+
+	private static final NameTable instance = new NameTable(null);
+
+	/** Get the global name table
+	 *
+	 * @return the name table
+	 */
+	public static NameTable getInstance() {
+		return instance;
+	}
+
+	private final NameTable parent; // The global table, or null if this is the global table
+	private final int nBase; // The number of names in the parent at the time this table was created
+	private final Map<String,Integer> ids = new ConcurrentHashMap<String,Integer>();
+	private volatile String[] names;
+	private int nCount = 0;
+
+	/** Create a new local name table, which extends a parent table. Names which are added
+	 *  to the parent after the creation of the local table are not shared with the local table.
+	 *
+	 * @param parent the parent table, usually the global table
+	 */
+	public NameTable(NameTable parent) {
+		this.parent = parent;
+		if (parent!=null) {
+			nBase = parent.size();
+			names = new String[64];
+		}
+		else {
+			nBase = 0;
+			names = new String[1024];
+		}
+	}
+
+	/** Add all public static string constants of a class to the name table. Names which are already
+	 *  in the table are not affected.
+	 *
+	 * @param cls the class containing the constants
+	 */
+	public void addNames(Class<?> cls) {
+		for (Field field : cls.getFields()) {
+			int nModifiers = field.getModifiers();
+			if (Modifier.isStatic(nModifiers) && Modifier.isFinal(nModifiers) && field.getType()==String.class) {
+				try {
+					String sName = (String) field.get(null);
+					if (sName!=null) { add(sName); }
+				}
+				catch (IllegalAccessException e) {
+					// Cannot happen for a public field
+				}
+			}
+		}
+	}
+
+	/** Get the number of names in the table, including the names shared with the parent
+	 *
+	 * @return the number of names
+	 */
+	public synchronized int size() {
+		return nBase+nCount;
+	}
+
+	/** Get the id of a name, adding the name to the table if required. Names can only be added to
+	 *  a local table, the global table is read only except for <code>addNames</code>.
+	 *
+	 * @param sName the name
+	 * @return the id
+	 * @throws IllegalStateException if this is the global table, and the name is not in the table
+	 */
+	public int getId(String sName) {
+		int nId = findId(sName);
+		if (nId>=0) {
+			return nId;
+		}
+		if (parent==null) {
+			throw new IllegalStateException("Cannot add the name "+sName+" to the global name table");
+		}
+		return add(sName);
+	}
+
+	// Add a name to this table (if it is not already there)
+	private int add(String sName) {
+		Integer nId = ids.get(sName);
+		if (nId!=null) {
+			return nId;
+		}
+		synchronized (this) {
+			nId = ids.get(sName);
+			if (nId!=null) {
+				return nId;
+			}
+			if (nCount==names.length) {
+				names = Arrays.copyOf(names, 2*nCount);
+			}
+			// Store the name before the id is put in the map. The put happens-before any get from the map,
+			// which returns the id, hence getName will find the name for any id returned by findId
+			names[nCount] = sName;
+			int nNewId = nBase+nCount++;
+			ids.put(sName, nNewId);
+			return nNewId;
+		}
+	}
+
+	/** Find the id of a name without adding it to the table
+	 *
+	 * @param sName the name
+	 * @return the id, or -1 if the name is not in the table
+	 */
+	public int findId(String sName) {
+		if (parent!=null) {
+			int nId = parent.findId(sName);
+			if (nId>=0 && nId<nBase) {
+				return nId;
+			}
+		}
+		Integer nId = ids.get(sName);
+		return nId!=null ? nId : -1;
+	}
+
+	/** Get the canonical instance of a name with a given id
+	 *
+	 * @param nId the id, which must have been returned by <code>getId</code> or <code>findId</code>
+	 * @return the name
+	 */
+	public String getName(int nId) {
+		return nId<nBase ? parent.getName(nId) : names[nId-nBase];
+	}
+
+	/** Get the canonical instance of a name, adding the name to the table if required
+	 *
+	 * @param sName the name
+	 * @return a string equal to <code>sName</code>
+	 * @throws IllegalStateException if this is the global table, and the name is not in the table
+	 */
+	public String intern(String sName) {
+		return getName(getId(sName));
+	}
+
+}
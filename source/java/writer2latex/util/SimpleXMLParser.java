@@ -19,7 +19,7 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2012-04-01) 
+ *  Version 2.0 (2026-10-18) 
  * 
  */
 
@@ -31,20 +31,38 @@ import java.io.StringReader;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
 
-/** A simple SAX based XML parser which transforms the SAX events into a DOM tree
+/** A simple SAX based XML parser which transforms the SAX events into a compact DOM tree
  *  (supporting element and text nodes only)
  */
 public class SimpleXMLParser extends DefaultHandler {
 	
+	/** A listener which is notified as the elements are added to the DOM tree. This allows a client to
+	 *  collect information from the document during parsing rather than traversing the DOM tree afterwards.
+	 */
+	public interface ElementListener {
+		/** Called when an element has been added to the DOM tree. The attributes of the element are available,
+		 *  but the element does not have any children yet
+		 * 
+		 * @param element the new element
+		 */
+		public void startElement(Element element);
+
+		/** Called when an element is complete, i.e. all descendants have been added to the DOM tree
+		 * 
+		 * @param element the element
+		 */
+		public void endElement(Element element);
+	}
+	
 	/** Static method to parse an XML input stream into a DOM tree
 	 * 
 	 * @param is the input stream to parse
@@ -53,13 +71,28 @@ public class SimpleXMLParser extends DefaultHandler {
 	 * @throws SAXException if an error occurs parsing the stream
 	 */
 	public static Document parse(InputStream is) throws IOException, SAXException {
-		SAXParserFactory factory=SAXParserFactory.newInstance();
-		
-		factory.setValidating(false);
+		return parse(is,null);
+	}
+	
+	/** Static method to parse an XML input stream into a DOM tree, notifying a listener as the elements are added
+	 * 
+	 * @param is the input stream to parse
+	 * @param listener the listener to notify, or null if no listener should be notified
+	 * @return a DOM tree of the document
+	 * @throws IOException if an error occurs reading the input stream
+	 * @throws SAXException if an error occurs parsing the stream
+	 */
+	public static Document parse(InputStream is, ElementListener listener) throws IOException, SAXException {
 		SimpleXMLParser handler = new SimpleXMLParser();
+		handler.listener = listener;
 		try {
-			SAXParser saxParser = factory.newSAXParser();
-			saxParser.parse(is,handler);
+			SAXParser saxParser = XMLParserPool.acquireSAXParser();
+			try {
+				saxParser.parse(is,handler);
+			}
+			finally {
+				XMLParserPool.releaseSAXParser(saxParser);
+			}
 			return handler.getDOM();
 		}
 		catch (ParserConfigurationException e) {
@@ -69,7 +102,8 @@ public class SimpleXMLParser extends DefaultHandler {
 		return null;
 	}
 
-	private SimpleDOMBuilder builder = new SimpleDOMBuilder();
+	private CompactDOMBuilder builder = new CompactDOMBuilder();
+	private ElementListener listener = null;
 	
 	public org.w3c.dom.Document getDOM() {
 		return builder.getDOM();
@@ -86,15 +120,20 @@ public class SimpleXMLParser extends DefaultHandler {
 		for (int i=0;i<nLen;i++) {
 			builder.setAttribute(attributes.getQName(i), attributes.getValue(i));
 		}
+		if (listener!=null) {
+			listener.startElement(builder.getCurrentElement());
+		}
 	}
 	
 	@Override public void endElement(String nameSpace, String localName, String qName){
+		if (listener!=null) {
+			listener.endElement(builder.getCurrentElement());
+		}
 		builder.endElement();
 	}
 
-	@Override public void characters(char[] characters, int nStart, int nEnd) throws SAXException {
-		builder.characters(new String(characters,nStart,nEnd));
-		
+	@Override public void characters(char[] characters, int nStart, int nLength) throws SAXException {
+		builder.characters(characters,nStart,nLength);
 	}
 
 }
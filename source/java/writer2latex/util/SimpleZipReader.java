@@ -19,25 +19,51 @@
  *  You should have received a copy of the GNU General Public License
  *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
  * 
- *  Version 1.4 (2012-03-27)
+ *  Version 2.0 (2026-10-18)
  *
  */
 
 package writer2latex.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
+/** A simple reader for ZIP files. The reader can either read a ZIP stream, in which case all entries
+ *  are inflated up front, or it can open a ZIP file for random access, in which case an entry is only
+ *  inflated when it is requested.
+ */
 public class SimpleZipReader {
+	
+	/** An <code>EntryHandler</code> can be used to consume selected entries directly from the inflater
+	 *  while reading a zipped stream, thus avoiding to store the entry in memory.
+	 */
+	public interface EntryHandler {
+		/** Handle an entry of the ZIP stream
+		 * 
+		 * @param sName the name (path) of the ZIP entry
+		 * @param is an input stream providing the inflated contents of the entry. The stream cannot be closed
+		 * (all invocations of <code>close</code> are ignored) and need not be read to the end
+		 * @return true if the entry was consumed, false if the entry should be read into memory as usual
+		 * @throws IOException if an error occurs handling the entry
+		 */
+		public boolean handleEntry(String sName, InputStream is) throws IOException;
+	}
 
     private final static int BUFFERSIZE = 1024;
 
     private Map<String,byte[]> entries = new HashMap<String,byte[]>();
+    
+    // The ZIP file, if the reader is used for random access
+    private ZipFile zipFile = null;
 
 
     /** Read a zipped stream
@@ -47,9 +73,28 @@ public class SimpleZipReader {
      *  @throws  IOException  if an I/O error occurs
      */
     public void read(InputStream is) throws IOException {
+    	read(is,null);
+    }
+    
+    /** Read a zipped stream, passing entries to a handler before storing them
+    *
+    *  @param  is  <code>InputStream</code> to read
+    *  @param  handler  <code>EntryHandler</code> which may consume entries, or null to store all entries
+    *
+    *  @throws  IOException  if an I/O error occurs
+    */
+    public void read(InputStream is, EntryHandler handler) throws IOException {
         ZipInputStream zis = new ZipInputStream(is);
+        InputStream entryStream = new FilterInputStream(zis) {
+        	@Override public void close() {
+        		// The handler should not close the ZIP stream
+        	}
+        };
         ZipEntry entry = null;
         while ((entry=zis.getNextEntry())!=null) {
+        	if (handler!=null && handler.handleEntry(entry.getName(), entryStream)) {
+        		continue;
+        	}
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             int nLen = 0;
             byte buffer[] = new byte[BUFFERSIZE];
@@ -62,22 +107,123 @@ public class SimpleZipReader {
         zis.close();
     }
     
+    /** Open a ZIP file for random access. Only the central directory is read by this method,
+     *  the entries are inflated when requested by <code>getEntry</code>. The file is kept open until
+     *  <code>close</code> is called.
+     *
+     *  @param  file  the <code>File</code> to open
+     *
+     *  @throws  IOException  if an I/O error occurs, or the file is not a ZIP file
+     */
+    public void read(File file) throws IOException {
+    	close();
+    	zipFile = new ZipFile(file);
+    }
+    
+    /** Close the ZIP file, if any. After this, no more entries can be read from the file.
+     * 
+     *  @throws  IOException  if an I/O error occurs
+     */
+    public void close() throws IOException {
+    	if (zipFile!=null) {
+    		ZipFile zip = zipFile;
+    		zipFile = null;
+    		zip.close();
+    	}
+    }
+    
+    /** Test whether an entry exists in the ZIP file (without inflating it)
+     * 
+     * @param   sName    the name (path) of the ZIP entry
+     * 
+     * @return  true if the entry exists and has not been removed
+     */
+    public boolean hasEntry(String sName) {
+    	if (zipFile!=null) {
+    		return zipFile.getEntry(sName)!=null;
+    	}
+    	return entries.containsKey(sName);
+    }
+    
+    /** Test whether the entries can be read more than once. This is the case if the reader was used to open a file.
+     * 
+     * @return true if the entries can be read more than once
+     */
+    public boolean isRandomAccess() {
+    	return zipFile!=null;
+    }
+    
     /** Get an entry from the ZIP file. Getting should be taken quite literally here:
-     *  You can only get an entry once: The <code>SimpleZipReader</code> removes the entry from the
-     *  collection when this method is called (memory optimization).
+     *  If the reader was used to read a stream, you can only get an entry once: The <code>SimpleZipReader</code>
+     *  removes the entry from the collection when this method is called (memory optimization).
+     *  If the reader was used to open a file, the entry is inflated from the file on each call.
      *
      * @param   sName    the name (path) of the ZIP entry
      *
      * @return  a byte array with the contents of the entry, or null if the entry does not exist
      */
     public byte[] getEntry(String sName) {
-    	if (entries.containsKey(sName)) {
+    	if (zipFile!=null) {
+    		try {
+    			return inflate(sName);
+    		}
+    		catch (IOException e) {
+    			return null;
+    		}
+    	}
+    	else if (entries.containsKey(sName)) {
     		byte[] bytes = entries.get(sName);
     		entries.remove(sName);
     		return bytes;
     	}
     	return null;
     }
-        
+    
+    /** Get an entry from the ZIP file as a stream. If the reader was used to open a file, the stream
+     *  will inflate the entry while it is read. Otherwise the entry is removed from the collection
+     *  as with <code>getEntry</code>. The caller is responsible for closing the stream.
+     *
+     * @param   sName    the name (path) of the ZIP entry
+     *
+     * @return  an input stream with the contents of the entry, or null if the entry does not exist
+     * 
+     * @throws  IOException  if an I/O error occurs
+     */
+    public InputStream getInputStream(String sName) throws IOException {
+    	if (zipFile!=null) {
+    		ZipEntry entry = zipFile.getEntry(sName);
+    		return entry!=null ? zipFile.getInputStream(entry) : null;
+    	}
+    	byte[] bytes = getEntry(sName);
+    	return bytes!=null ? new ByteArrayInputStream(bytes) : null;
+    }
+    
+    private byte[] inflate(String sName) throws IOException {
+		ZipEntry entry = zipFile.getEntry(sName);
+		if (entry==null) {
+			return null;
+		}
+		long nSize = entry.getSize();
+		InputStream is = zipFile.getInputStream(entry);
+		try {
+			if (nSize>=0 && nSize<=Integer.MAX_VALUE) {
+				// The size is known, so we can read directly into the result
+				byte[] bytes = new byte[(int) nSize];
+				int nOffset = 0;
+				int nLen = 0;
+				while (nOffset<bytes.length && (nLen = is.read(bytes, nOffset, bytes.length-nOffset)) > 0) {
+					nOffset+=nLen;
+				}
+				if (nOffset<bytes.length) {
+					throw new IOException("Unexpected end of ZIP entry "+sName);
+				}
+				return bytes;
+			}
+			return Misc.inputStreamToByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+    }
 
 }
@@ -0,0 +1,132 @@
+/************************************************************************
+ *
+ *  XMLParserPool.java
+ *
+ *  Copyright: 2002-2026 by Henrik Just
+ *
+ *  This file is part of Writer2LaTeX.
+ *  
+ *  Writer2LaTeX is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  Writer2LaTeX is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with Writer2LaTeX.  If not, see <http://www.gnu.org/licenses/>.
+ * 
+ *  Version 2.0 (2026-10-18)
+ *
+ */
+
+package writer2latex.util;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+
+/** This class provides shared XML parsers. The parser factories are created once, and each thread keeps
+ *  a parser for reuse. A parser must be acquired before use and released afterwards, for example
+ *  <pre>
+ *  SAXParser parser = XMLParserPool.acquireSAXParser();
+ *  try {
+ *      parser.parse(is,handler);
+ *  }
+ *  finally {
+ *      XMLParserPool.releaseSAXParser(parser);
+ *  }
+ *  </pre>
+ *  If a parser is acquired while the thread's parser is in use (e.g. from within a SAX handler),
+ *  a new parser is created.
+ */
+public final class XMLParserPool {
+
+	private static final SAXParserFactory saxFactory;
+	private static final DocumentBuilderFactory domFactory;
+
+	static {
+		saxFactory = SAXParserFactory.newInstance();
+		saxFactory.setValidating(false);
+		domFactory = DocumentBuilderFactory.newInstance();
+		domFactory.setNamespaceAware(true);
+		domFactory.setValidating(false);
+	}
+
+	// The available parser for each thread (null if the parser is in use)
+	private static final ThreadLocal<SAXParser> saxParser = new ThreadLocal<SAXParser>();
+	private static final ThreadLocal<DocumentBuilder> domBuilder = new ThreadLocal<DocumentBuilder>();
+
+	private XMLParserPool() {
+	}
+
+	/** Get a non-validating SAX parser for use by the current thread
+	 *
+	 * @return the parser
+	 * @throws ParserConfigurationException if a parser cannot be created (should not happen)
+	 * @throws SAXException if a parser cannot be created (should not happen)
+	 */
+	public static SAXParser acquireSAXParser() throws ParserConfigurationException, SAXException {
+		SAXParser parser = saxParser.get();
+		if (parser!=null) {
+			saxParser.set(null);
+			return parser;
+		}
+		// The factory is not guaranteed to be thread safe
+		synchronized (saxFactory) {
+			return saxFactory.newSAXParser();
+		}
+	}
+
+	/** Return a SAX parser which was acquired by the current thread
+	 *
+	 * @param parser the parser, which should not be used afterwards
+	 */
+	public static void releaseSAXParser(SAXParser parser) {
+		try {
+			parser.reset();
+			saxParser.set(parser);
+		}
+		catch (UnsupportedOperationException e) {
+			// The parser cannot be reused
+		}
+	}
+
+	/** Get a namespace aware, non-validating DOM document builder for use by the current thread
+	 *
+	 * @return the document builder
+	 * @throws ParserConfigurationException if a document builder cannot be created (should not happen)
+	 */
+	public static DocumentBuilder acquireDocumentBuilder() throws ParserConfigurationException {
+		DocumentBuilder builder = domBuilder.get();
+		if (builder!=null) {
+			domBuilder.set(null);
+			return builder;
+		}
+		synchronized (domFactory) {
+			return domFactory.newDocumentBuilder();
+		}
+	}
+
+	/** Return a document builder which was acquired by the current thread
+	 *
+	 * @param builder the document builder, which should not be used afterwards
+	 */
+	public static void releaseDocumentBuilder(DocumentBuilder builder) {
+		try {
+			builder.reset();
+			domBuilder.set(builder);
+		}
+		catch (UnsupportedOperationException e) {
+			// The document builder cannot be reused
+		}
+	}
+
+}